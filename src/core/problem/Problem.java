@@ -92,6 +92,28 @@ public abstract class Problem {
         return nodes;
     }
 
+    /**
+     * Ƿ棬ܴĿ״̬(predecessorNodes)
+     * @return Ĭfalseд
+     */
+    public boolean reversible() {
+        return false;
+    }
+
+    /**
+     * ʱḷ́һnode״̬ǰ״̬
+     * ·ǴĿ״̬ۼƵĴۣactionǷвȡĶ
+     * ĬʵҪͬʱǰḷ́۲ͬҪд
+     * @param node  еĽ
+     * @return  nodeǰ
+     */
+    public List<Node> predecessorNodes(Node node) {
+        if (!reversible()) {
+            throw new UnsupportedOperationException("ⲻ棬ܷ");
+        }
+        return childNodes(node);
+    }
+
     /**
      *
      * @param state     ǰ״̬
@@ -128,5 +150,9 @@ public abstract class Problem {
         return goal;
     }
 
+    public State getInitialState() {
+        return initialState;
+    }
+
     public abstract void showSolution(Deque<Node> path);
 }
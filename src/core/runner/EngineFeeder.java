@@ -2,7 +2,15 @@ package core.runner;
 
 import core.problem.Problem;
 import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.algorithm.searcher.AnytimeRepairingAStar;
 import core.solver.algorithm.searcher.BestFirstSearcher;
+import core.solver.algorithm.searcher.FocalSearcher;
+import core.solver.algorithm.searcher.FrontierSearcher;
+import core.solver.algorithm.searcher.HashDistributedAStar;
+import core.solver.algorithm.searcher.ImmediateExpansionSearcher;
+import core.solver.algorithm.searcher.LazyBestFirstSearcher;
+import core.solver.algorithm.searcher.ReopeningBestFirstSearcher;
+import core.solver.algorithm.searcher.SmaStarSearcher;
 import core.solver.queue.EvaluationType;
 import core.solver.algorithm.heuristic.HeuristicType;
 import core.solver.algorithm.heuristic.Predictor;
@@ -16,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Ϊ㷨ṩزġ
@@ -59,17 +68,203 @@ public abstract class EngineFeeder {
         return new stud.g01.solver.IdAStar(frontier, predictor); // predictor
     }
 
+    /**
+     * IDA*_CRֵfֲֵѡһֵÿεĽڵԼһ
+     */
+    public final AbstractSearcher getIdaStarCR(HeuristicType type) {
+        stud.g01.solver.IdAStar searcher = (stud.g01.solver.IdAStar) getIdaStar(type);
+        searcher.setGrowthFactor(2.0);
+        return searcher;
+    }
+
+    /**
+     * IDA*߳ڿô
+     */
+    public final AbstractSearcher getParallelIdaStar(HeuristicType type) {
+        Predictor predictor = getPredictor(type);
+        Frontier frontier = getFrontier(EvaluationType.FULL);
+        return new stud.g01.solver.ParallelIdAStar(frontier, predictor);
+    }
+
+    /**
+     * MM˫ʹͬһԤƵʼ״̬Ĵ
+     */
+    public final AbstractSearcher getMeetInMiddle(HeuristicType type) {
+        return pinPredictor(type, predictor ->
+                new stud.g01.solver.MeetInMiddleSearcher(getFrontier(EvaluationType.FULL), predictor));
+    }
+
+    /**
+     * ʹĿܱ߱IDA*ܱ߱ڵ״̬ɽ
+     */
+    public final AbstractSearcher getPerimeterIdaStar(HeuristicType type) {
+        stud.g01.solver.IdAStar searcher = (stud.g01.solver.IdAStar) getIdaStar(type);
+        searcher.setPerimeterDepth(stud.g01.solver.PerimeterTable.DEFAULT_DEPTH);
+        return searcher;
+    }
+
+    /**
+     * ʹĿܱ߱A*
+     */
+    public final AbstractSearcher getPerimeterAStar(HeuristicType type) {
+        return pinPredictor(type, predictor ->
+                new stud.g01.solver.PerimeterAStar(getFrontier(EvaluationType.FULL), predictor));
+    }
+
     /**
      * ԱʵAStar, ⶼһ
      * ʹòͬ
      * @param type õ
      */
     public final AbstractSearcher getAStar(HeuristicType type) {
-        Predictor predictor = getPredictor(type);
         // ȡFrontierNodeg(n)+h(n)Уͬʱg(n)
-        Frontier frontier = getFrontier(EvaluationType.FULL);
-        // frontierpredictorAStar
-        return new BestFirstSearcher(frontier, predictor);
+        // frontierpredictorAStar棻A*ؿչĽ㣬̨Ԥÿ̶һ
+        return pinPredictor(type, predictor -> new BestFirstSearcher(getFrontier(EvaluationType.FULL), predictor));
+    }
+
+    /**
+     * ؿչ;h仯
+     * ԤĄ̊́лģʽݿʱÿʼʱȡһοս½
+     * ʵԤÿȡԼıĹֵٽ½
+     * ԤֱʹáIDA*һﴴ
+     * IDA*һÿεȻʹʵʱлԤʵıIDA*Լμ
+     */
+    private AbstractSearcher pinPredictor(HeuristicType type, Function<Predictor, AbstractSearcher> factory) {
+        Predictor predictor = getPredictor(type);
+        if (predictor instanceof stud.g01.heuristic.BackgroundPatternPredictor) {
+            return new stud.g01.solver.SnapshotSearcher(getFrontier(EvaluationType.FULL),
+                    (stud.g01.heuristic.BackgroundPatternPredictor) predictor, factory);
+        }
+        if (predictor instanceof stud.g01.heuristic.CostBoundedPredictor) {
+            return new stud.g01.solver.SnapshotSearcher(getFrontier(EvaluationType.FULL),
+                    (stud.g01.heuristic.CostBoundedPredictor) predictor, factory);
+        }
+        return factory.apply(predictor);
+    }
+
+    /**
+     * ϣֲʽA*(HDA*)߳ڿô
+     * ֻStateequals/hashCodePuzzleFeederWalkerFeederͨHDASTARʹã
+     * ֻ߳չfȫСf޵Ľ㣬޿ϵͳhda.slackãĬΪ0
+     * @param type õ
+     */
+    public final AbstractSearcher getHdaStar(HeuristicType type) {
+        int slack = Integer.getInteger("hda.slack", 0);
+        return pinPredictor(type, predictor -> {
+            HashDistributedAStar searcher = new HashDistributedAStar(getFrontier(EvaluationType.FULL), predictor);
+            searcher.setSlack(slack);
+            return searcher;
+        });
+    }
+
+    /**
+     * ڴ޵SMA*ڴౣĽϵͳsma.max.nodes
+     * @param type õ
+     */
+    public final AbstractSearcher getSmaStar(HeuristicType type) {
+        int maxNodes = Integer.getInteger("sma.max.nodes", SmaStarSearcher.DEFAULT_MAX_NODES);
+        return pinPredictor(type, predictor -> new SmaStarSearcher(getFrontier(EvaluationType.FULL), predictor, maxNodes));
+    }
+
+    /**
+     * Closedǰ·ͨع
+     * @param type õ
+     */
+    public final AbstractSearcher getFrontierSearch(HeuristicType type) {
+        return pinPredictor(type, predictor -> new FrontierSearcher(getFrontier(EvaluationType.FULL), predictor));
+    }
+
+    /**
+     * нŵĽĴ۲Ŵ۵wh
+     * wϵͳfocal.weightãĬΪ2
+     * @param type õ
+     */
+    public final AbstractSearcher getFocal(HeuristicType type) {
+        double weight = Double.parseDouble(System.getProperty("focal.weight", "2"));
+        return pinPredictor(type, predictor -> new FocalSearcher(getFrontier(EvaluationType.FULL), predictor, weight));
+    }
+
+    /**
+     * ǿĲչA*(EPEA*)ֻfڽ㵱ǰFֵӽ㣻
+     * Ԥܸhĵ仯(پ)ʱɶ״̬
+     * @param type õ
+     */
+    public final AbstractSearcher getPartialExpansionAStar(HeuristicType type) {
+        return pinPredictor(type, predictor ->
+                new stud.g01.solver.PartialExpansionAStar(getFrontier(EvaluationType.FULL), predictor));
+    }
+
+    /**
+     * ԵֵһֵıԵҲҪȶ
+     * @param type õ
+     */
+    public final AbstractSearcher getFringeSearch(HeuristicType type) {
+        // Եֱh;仯ͬ©
+        return pinPredictor(type, predictor ->
+                new stud.g01.solver.FringeSearch(getFrontier(EvaluationType.FULL), predictor));
+    }
+
+    /**
+     * ӳֵA*Ԥֻڽ㵽ͷʱã
+     * ӽʱʹõϵͳlazy.cheap.heuristicָ(MANHATTAN)Ĭֻøh
+     * @param type õ
+     */
+    public final AbstractSearcher getLazyAStar(HeuristicType type) {
+        String cheap = System.getProperty("lazy.cheap.heuristic");
+        Predictor cheapPredictor = cheap == null ? null : getPredictor(HeuristicType.valueOf(cheap));
+        return pinPredictor(type, predictor ->
+                new LazyBestFirstSearcher(getFrontier(EvaluationType.FULL), predictor, cheapPredictor));
+    }
+
+    /**
+     * չA*f븸ȵӽֱѹջչFrontier
+     * @param type õ
+     */
+    public final AbstractSearcher getImmediateAStar(HeuristicType type) {
+        return pinPredictor(type, predictor -> new ImmediateExpansionSearcher(getFrontier(EvaluationType.FULL), predictor));
+    }
+
+    /**
+     * BPMXIDA*ڲһµ
+     */
+    public final AbstractSearcher getIdaStarBpmx(HeuristicType type) {
+        stud.g01.solver.IdAStar searcher = (stud.g01.solver.IdAStar) getIdaStar(type);
+        searcher.setBpmx(true);
+        return searcher;
+    }
+
+    /**
+     * ´򿪽㲢BPMXA*ڲһµ
+     * @param type õ
+     */
+    public final AbstractSearcher getBpmxAStar(HeuristicType type) {
+        return pinPredictor(type, predictor ->
+                new ReopeningBestFirstSearcher(getFrontier(EvaluationType.FULL), predictor, true));
+    }
+
+    /**
+     * ʱ޸A*(ARA*)ʼȨ3ÿֽ0.5ÿõõĽһУ
+     * ʱ()ϵͳara.time.limitãĬϲʱ
+     * @param type õ
+     */
+    public final AbstractSearcher getAraStar(HeuristicType type) {
+        long timeLimit = Long.getLong("ara.time.limit", 0L);
+        return pinPredictor(type, predictor -> {
+            AnytimeRepairingAStar searcher = new AnytimeRepairingAStar(getFrontier(EvaluationType.FULL), predictor, 3.0, 0.5);
+            searcher.setTimeLimit(timeLimit);
+            searcher.setListener((path, cost, bound, elapsed) ->
+                    System.out.printf("ARA*:  %d, Ž %.2f, ʱ %dms\n", cost, bound, elapsed));
+            return searcher;
+        });
+    }
+
+    /**
+     * A*ɵĽ㰴(g, h)Ͱд̣Ŀ¼ϵͳexternal.astar.dirָ
+     * @param type õ
+     */
+    public final AbstractSearcher getExternalAStar(HeuristicType type) {
+        return pinPredictor(type, predictor ->
+                new stud.g01.solver.ExternalAStar(getFrontier(EvaluationType.FULL), predictor));
     }
 
     /**
@@ -114,6 +309,40 @@ public abstract class EngineFeeder {
                 return getAStar(heuristicType);
             case "IDASTAR":
                 return getIdaStar(heuristicType);
+            case "IDASTAR_CR":
+                return getIdaStarCR(heuristicType);
+            case "PARALLEL_IDASTAR":
+                return getParallelIdaStar(heuristicType);
+            case "HDASTAR":
+                return getHdaStar(heuristicType);
+            case "SMASTAR":
+                return getSmaStar(heuristicType);
+            case "FRONTIER_ASTAR":
+                return getFrontierSearch(heuristicType);
+            case "ARASTAR":
+                return getAraStar(heuristicType);
+            case "FOCAL":
+                return getFocal(heuristicType);
+            case "EPEASTAR":
+                return getPartialExpansionAStar(heuristicType);
+            case "FRINGE":
+                return getFringeSearch(heuristicType);
+            case "LAZY_ASTAR":
+                return getLazyAStar(heuristicType);
+            case "IMMEDIATE_ASTAR":
+                return getImmediateAStar(heuristicType);
+            case "IDASTAR_BPMX":
+                return getIdaStarBpmx(heuristicType);
+            case "BPMX_ASTAR":
+                return getBpmxAStar(heuristicType);
+            case "EXTERNAL_ASTAR":
+                return getExternalAStar(heuristicType);
+            case "MM":
+                return getMeetInMiddle(heuristicType);
+            case "PERIMETER_IDASTAR":
+                return getPerimeterIdaStar(heuristicType);
+            case "PERIMETER_ASTAR":
+                return getPerimeterAStar(heuristicType);
             case "BIDIRECTIONAL_IDASTAR":
                 return getBidirectionalIdAStar(heuristicType);  // һ
             case "OPTIMIZED_ASTAR":
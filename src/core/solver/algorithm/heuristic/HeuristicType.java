@@ -7,6 +7,8 @@ public enum HeuristicType {
     DISJOINT_PATTERN,
     PATTERN_78,        // 7-8ģʽ
     PATTERN_663,       // 6-6-3ģʽ
+    PATTERN_INSTANCE,  // ʵ蹹ģʽݿ
+    PATTERN_HIERARCHICAL, // ѯʱڳռס
 
     //PathFinding (8)
     PF_EUCLID,      // ŷþ
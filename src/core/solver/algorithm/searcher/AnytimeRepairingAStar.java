@@ -0,0 +1,230 @@
+package core.solver.algorithm.searcher;
+
+import java.util.*;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+/**
+ * ʱ޸A*(ARA*)
+ * ýϴȨwȨA*Frontierнhͺ floor(w * h)FULL g + w*h 
+ * ܿõһ۲wŵĽ⣻֮𲽽w״̬gֵOpen
+ * չҵСg״̬INCONSһֿʼʱOpenµw򣬶Ǵͷ
+ * ÿõһõĽͨصͬʱǰĴŽ min(w,  / min(g+h))
+ * ֹʱʱĿǰõĽ⣻ֻн۲OpenINCONSСg+hʱֹͣţ
+ * w1Դ1ʱw=1ǰʵʴŽ硣
+ *  ǰh(n)ɲɣFrontierʹFULL
+ */
+public final class AnytimeRepairingAStar extends AbstractSearcher {
+
+	/**
+	 * ĽĻص
+	 */
+	@FunctionalInterface
+	public interface IncumbentListener {
+		/**
+		 * @param path    ·
+		 * @param cost    Ĵ
+		 * @param bound   Ĵ۲Ŵ۵boundΪ1ʱŽ
+		 * @param elapsed ʼĺ
+		 */
+		void improved(Deque<Node> path, int cost, double bound, long elapsed);
+	}
+
+	private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+	private final Predictor predictor;
+	private final double initialWeight;
+	private final double weightStep;
+	private IncumbentListener listener;
+	private long timeLimitMs;
+
+	// ״̬
+	private Problem problem;
+	private final Map<State, Integer> bestG = new HashMap<>();
+	private final Map<State, Node> incons = new HashMap<>();
+	private Node incumbent;
+	private double weight;
+	private double bound;
+	private long startTime;
+	private boolean timedOut;
+
+	/**
+	 * @param frontier      ʹFULLFrontier
+	 * @param predictor     Ԥ
+	 * @param initialWeight ʼȨأС1
+	 * @param weightStep    ÿֽ͵Ȩ
+	 */
+	public AnytimeRepairingAStar(Frontier frontier, Predictor predictor, double initialWeight, double weightStep) {
+		super(frontier);
+		this.predictor = predictor;
+		this.initialWeight = Math.max(1.0, initialWeight);
+		this.weightStep = weightStep > 0 ? weightStep : 0.5;
+	}
+
+	public AnytimeRepairingAStar(Frontier frontier, Predictor predictor) {
+		this(frontier, predictor, 3.0, 0.5);
+	}
+
+	@Override
+	public Deque<Node> search(Problem problem) {
+		if (!problem.solvable()) {
+			return null;
+		}
+
+		this.problem = problem;
+		frontier.clear();
+		explored.clear();
+		bestG.clear();
+		incons.clear();
+		nodesExpanded = 0;
+		nodesGenerated = 0;
+		incumbent = null;
+		weight = initialWeight;
+		bound = Double.POSITIVE_INFINITY;
+		timedOut = false;
+		startTime = System.currentTimeMillis();
+
+		Node root = problem.root(predictor);
+		bestG.put(root.getState(), 0);
+		if (problem.goal(root.getState())) {
+			incumbent = root;
+		}
+		frontier.offer(root.setHeuristic(inflate(root.getHeuristic())));
+
+		while (true) {
+			Node before = incumbent;
+			improvePath();
+			if (timedOut) {
+				// ûɣ½ĴԲһ⣬һŽ
+				if (incumbent != before) {
+					publish();
+				}
+				break;
+			}
+
+			// OpenINCONSȡŽ磬ٰµȨطŻ
+			List<Node> pending = new ArrayList<>(frontier.size() + incons.size());
+			while (!frontier.isEmpty()) {
+				pending.add(frontier.poll());
+			}
+			pending.addAll(incons.values());
+			incons.clear();
+			int lowerBound = Integer.MAX_VALUE;
+			for (Node node : pending) {
+				int h = predictor.heuristics(node.getState(), problem.getGoal());
+				node.setHeuristic(h);
+				lowerBound = Math.min(lowerBound, node.evaluation());
+			}
+
+			if (incumbent == null) {
+				if (pending.isEmpty()) {
+					return null;    // ޽
+				}
+			} else {
+				double ratio = lowerBound == Integer.MAX_VALUE || lowerBound >= incumbent.getPathCost()
+						? 1.0 : (double) incumbent.getPathCost() / lowerBound;
+				bound = weight > 1.0 ? Math.min(weight, ratio) : ratio;
+				if (incumbent != before) {
+					publish();
+				}
+				if (ratio <= 1.0) {
+					bound = 1.0;
+					break;          // ֤
+				}
+			}
+
+			weight = Math.max(1.0, weight - weightStep);
+			explored.clear();
+			for (Node node : pending) {
+				frontier.offer(node.setHeuristic(inflate(node.getHeuristic())));
+			}
+		}
+		return incumbent == null ? null : generatePath(incumbent);
+	}
+
+	/**
+	 * ǰȨչֱûf' = g + w*hСڵǰ۵Ľ
+	 */
+	private void improvePath() {
+		while (!frontier.isEmpty()) {
+			if (timeLimitMs > 0 && nodesExpanded % DEADLINE_CHECK_INTERVAL == 0
+					&& System.currentTimeMillis() - startTime >= timeLimitMs) {
+				timedOut = true;
+				return;
+			}
+
+			Node node = frontier.poll();
+			if (incumbent != null && incumbent.getPathCost() <= node.evaluation()) {
+				frontier.offer(node);
+				return;
+			}
+			if (node.getPathCost() > bestG.get(node.getState())) {
+				continue;   // иСgĽ
+			}
+
+			explored.add(node.getState());
+			nodesExpanded++;
+			for (Node child : problem.childNodes(node, predictor)) {
+				nodesGenerated++;
+				State state = child.getState();
+				Integer known = bestG.get(state);
+				if (known != null && known <= child.getPathCost()) {
+					continue;
+				}
+				bestG.put(state, child.getPathCost());
+				child.setHeuristic(inflate(child.getHeuristic()));
+				if (problem.goal(state)) {
+					incumbent = child;
+				}
+				if (explored.contains(state)) {
+					incons.put(state, child);
+				} else {
+					frontier.offer(child);
+				}
+			}
+		}
+	}
+
+	private int inflate(int heuristic) {
+		return (int) (weight * heuristic);
+	}
+
+	private void publish() {
+		if (listener != null) {
+			listener.improved(generatePath(incumbent), incumbent.getPathCost(), bound,
+					System.currentTimeMillis() - startTime);
+		}
+	}
+
+	/**
+	 * ýĽĻص
+	 */
+	public void setListener(IncumbentListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * ʱƣʱĿǰõĽ⣻0ʱʱ
+	 */
+	public void setTimeLimit(long timeLimitMs) {
+		this.timeLimitMs = timeLimitMs;
+	}
+
+	/**
+	 * @return һصĽĴŽ磬Ϊ1ʱŽ
+	 */
+	public double getBound() {
+		return bound;
+	}
+
+	/**
+	 * @return һǷΪʱƶֹͣ
+	 */
+	public boolean isTimedOut() {
+		return timedOut;
+	}
+}
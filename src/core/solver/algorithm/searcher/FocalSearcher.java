@@ -0,0 +1,167 @@
+package core.solver.algorithm.searcher;
+
+import java.util.*;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.queue.EvaluationType;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+/**
+ * нŵĽ(Focal Search / A*_)
+ * Openf = g + h򣬽FOCALOpen f <= w * fmin Ĳ֣ڶֵ(ĬHEURISTICh)
+ * ÿչеڶֵСĽ(ͬʱȡg)fminʱOpen½ڵĽ㲹
+ * ȡĿ g = f <= w * fmin <= w * C*˽Ĵ۲Ŵ۵w
+ * ҵСgչ״̬´򿪡
+ *  ǰh(n)ɲ
+ */
+public final class FocalSearcher extends AbstractSearcher {
+
+	private final Predictor predictor;
+	private final double weight;
+	private final Comparator<Node> focalOrder;
+
+	// ״̬
+	private long nextId;
+	private NavigableSet<Entry> open;
+	private NavigableSet<Entry> focal;
+	private Map<State, Entry> openEntries;
+	private Map<State, Integer> closed;
+	private int focalBound;
+
+	/**
+	 * @param frontier 㸸ӿڣʹԼOpenͽ
+	 * @param predictor Ԥ
+	 * @param weight wС1
+	 * @param focalOrder 򣬼ڶֵ
+	 */
+	public FocalSearcher(Frontier frontier, Predictor predictor, double weight, Comparator<Node> focalOrder) {
+		super(frontier);
+		this.predictor = predictor;
+		this.weight = Math.max(1.0, weight);
+		this.focalOrder = focalOrder;
+	}
+
+	public FocalSearcher(Frontier frontier, Predictor predictor, double weight) {
+		this(frontier, predictor, weight, Node.evaluator(EvaluationType.HEURISTIC));
+	}
+
+	/**
+	 * OpenеһidֵֹͬĽ
+	 */
+	private static final class Entry {
+		final Node node;
+		final long id;
+
+		Entry(Node node, long id) {
+			this.node = node;
+			this.id = id;
+		}
+	}
+
+	@Override
+	public Deque<Node> search(Problem problem) {
+		if (!problem.solvable()) {
+			return null;
+		}
+
+		frontier.clear();
+		explored.clear();
+		nodesExpanded = 0;
+		nodesGenerated = 0;
+		nextId = 0;
+		open = new TreeSet<>(Comparator.<Entry>comparingInt(e -> e.node.evaluation())
+				.thenComparingLong(e -> e.id));
+		focal = new TreeSet<>((a, b) -> {
+			int order = focalOrder.compare(a.node, b.node);
+			if (order != 0) {
+				return order;
+			}
+			// ڶֵͬʱȡĽ
+			order = Integer.compare(b.node.getPathCost(), a.node.getPathCost());
+			return order != 0 ? order : Long.compare(a.id, b.id);
+		});
+		openEntries = new HashMap<>();
+		closed = new HashMap<>();
+		focalBound = Integer.MIN_VALUE;
+
+		insert(problem.root(predictor));
+		while (!open.isEmpty()) {
+			updateFocal();
+
+			Entry entry = focal.pollFirst();
+			open.remove(entry);
+			Node node = entry.node;
+			openEntries.remove(node.getState());
+
+			if (problem.goal(node.getState())) {
+				return generatePath(node);
+			}
+
+			closed.put(node.getState(), node.getPathCost());
+			nodesExpanded++;
+			for (Node child : problem.childNodes(node, predictor)) {
+				nodesGenerated++;
+				State state = child.getState();
+				Integer closedG = closed.get(state);
+				if (closedG != null) {
+					if (closedG <= child.getPathCost()) {
+						continue;
+					}
+					closed.remove(state);   // ҵ̵·´
+				}
+				Entry known = openEntries.get(state);
+				if (known != null) {
+					if (known.node.getPathCost() <= child.getPathCost()) {
+						continue;
+					}
+					open.remove(known);
+					focal.remove(known);
+				}
+				insert(child);
+			}
+		}
+		return null;
+	}
+
+	private void insert(Node node) {
+		Entry entry = new Entry(node, nextId++);
+		open.add(entry);
+		openEntries.put(node.getState(), entry);
+		if (node.evaluation() <= focalBound) {
+			focal.add(entry);
+		}
+	}
+
+	/**
+	 * ʹǡOpen f <= w * fmin Ľ
+	 */
+	private void updateFocal() {
+		int bound = (int) (weight * open.first().node.evaluation());
+		if (bound == focalBound) {
+			return;
+		}
+		if (bound < focalBound) {
+			// hһʱfmin½ؽ
+			focal.clear();
+			focalBound = Integer.MIN_VALUE;
+		}
+		Iterator<Entry> entries = focalBound == Integer.MIN_VALUE
+				? open.iterator()
+				: open.tailSet(new Entry(new Node(null, null, null, focalBound), Long.MAX_VALUE), false).iterator();
+		while (entries.hasNext()) {
+			Entry entry = entries.next();
+			if (entry.node.evaluation() > bound) {
+				break;
+			}
+			focal.add(entry);
+		}
+		focalBound = bound;
+	}
+
+	public double getWeight() {
+		return weight;
+	}
+}
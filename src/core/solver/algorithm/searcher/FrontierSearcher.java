@@ -0,0 +1,261 @@
+package core.solver.algorithm.searcher;
+
+import java.util.*;
+
+import core.problem.Action;
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+/**
+ * Closedǰ(Frontier A*)
+ * ڴֻOpenÿһ"ö"־λӽʱӽصǸΪã
+ * Ѿչ(ڴɾ)Ľ㲻ᱻɡ
+ * Ҳ游ָ룬Ǽ¼·Խеʱм״̬ҵĿ
+ * ֱͬķ ->м  м->Ŀ (ع)ֱÿֻʣһ
+ * Ŀ겻ԭĿֵ꣬ȡ max(0, h(s) - d)dĿ굽ԭĿ֪ۣȻһ¡
+ *  ǰÿ涯(ۿԲͬ)h(n)㵥
+ */
+public final class FrontierSearcher extends AbstractSearcher {
+
+	private final Predictor predictor;
+
+	// ״̬
+	private Problem problem;
+	private int peakOpen;
+	private int searches;
+
+	/**
+	 * @param frontier 㸸ӿڣǰʹԼOpen
+	 * @param predictor Ԥ
+	 */
+	public FrontierSearcher(Frontier frontier, Predictor predictor) {
+		super(frontier);
+		this.predictor = predictor;
+	}
+
+	/**
+	 * OpenеĽ㣺ûиָ룬ֻö־λм״̬
+	 */
+	private static final class FrontierNode {
+		final State state;
+		final int g;
+		final int h;
+		int used;               // iλʾstate.actions()еĵi
+		final State relay;      // ·Խе״̬δԽʱΪnull
+		final int relayG;
+
+		FrontierNode(State state, int g, int h, int used, State relay, int relayG) {
+			this.state = state;
+			this.g = g;
+			this.h = h;
+			this.used = used;
+			this.relay = relay;
+			this.relayG = relayG;
+		}
+
+		int f() {
+			return g + h;
+		}
+	}
+
+	// fͬfʱgǰ
+	private static final Comparator<FrontierNode> ORDER =
+			Comparator.<FrontierNode>comparingInt(FrontierNode::f).thenComparing(n -> -n.g);
+
+	/**
+	 * һǰĽ
+	 */
+	private static final class Segment {
+		final int cost;
+		final State relay;
+		final int relayG;
+
+		Segment(int cost, State relay, int relayG) {
+			this.cost = cost;
+			this.relay = relay;
+			this.relayG = relayG;
+		}
+	}
+
+	@Override
+	public Deque<Node> search(Problem problem) {
+		if (!problem.solvable()) {
+			return null;
+		}
+
+		this.problem = problem;
+		frontier.clear();
+		explored.clear();
+		nodesExpanded = 0;
+		nodesGenerated = 0;
+		peakOpen = 0;
+		searches = 0;
+
+		State start = problem.getInitialState();
+		State goal = problem.getGoal();
+		int middle = Math.max(1, predictor.heuristics(start, goal) / 2);
+		Segment whole = frontierSearch(start, goal, 0, middle);
+		if (whole == null) {
+			return null;
+		}
+
+		List<Node> steps = new ArrayList<>();
+		steps.add(problem.root(predictor));
+		if (whole.cost > 0) {
+			reconstruct(steps, start, goal, 0, whole);
+		}
+		return generatePath(steps.get(steps.size() - 1));
+	}
+
+	/**
+	 *  start->target һε·׷ӵstepsstepsһ״̬start
+	 * @param offset targetԭĿĴ
+	 * @param segment һε
+	 */
+	private void reconstruct(List<Node> steps, State start, State target, int offset, Segment segment) {
+		if (segment.relay == null) {
+			appendStep(steps, target, segment.cost);
+			return;
+		}
+		int firstCost = segment.relayG;
+		int secondCost = segment.cost - segment.relayG;
+		Segment first = solveKnown(start, segment.relay, offset + secondCost, firstCost);
+		reconstruct(steps, start, segment.relay, offset + secondCost, first);
+		Segment second = solveKnown(segment.relay, target, offset, secondCost);
+		reconstruct(steps, segment.relay, target, offset, second);
+	}
+
+	/**
+	 * ֪۵һΣеȡcost / 2
+	 * hɲʱӶεĴۿ֮ǰͬʱȻõһϷ·ֻǲ֤
+	 */
+	private Segment solveKnown(State start, State target, int offset, int cost) {
+		Segment segment = frontierSearch(start, target, offset, Math.max(1, cost / 2));
+		if (segment == null) {
+			throw new IllegalStateException("ǰعʧ: " + start + " -> " + target);
+		}
+		return segment;
+	}
+
+	/**
+	 * ֻһĶΣҵӵǰ״̬targetΪcostĶ
+	 */
+	private void appendStep(List<Node> steps, State target, int cost) {
+		Node last = steps.get(steps.size() - 1);
+		State from = last.getState();
+		for (Action action : from.actions()) {
+			if (problem.applicable(from, action)) {
+				State to = from.next(action);
+				if (to.equals(target) && problem.stepCost(to, action) == cost) {
+					steps.add(new Node(to, last, action, last.getPathCost() + cost));
+					return;
+				}
+			}
+		}
+		throw new IllegalStateException("ǰعʧ: " + from + " -> " + target);
+	}
+
+	/**
+	 * starttargetǰ
+	 * @param offset targetԭĿĴֵۣΪ max(0, h(s) - offset)
+	 * @param middle е㣬·ϵһg >= middle״̬Ϊм
+	 * @return Ŵۺмֻ̣һʱмΪnull޽ʱnull
+	 */
+	private Segment frontierSearch(State start, State target, int offset, int middle) {
+		searches++;
+		boolean original = target == problem.getGoal();
+		PriorityQueue<FrontierNode> queue = new PriorityQueue<>(ORDER);
+		Map<State, FrontierNode> open = new HashMap<>();
+
+		FrontierNode root = new FrontierNode(start, 0, estimate(start, offset), 0, null, 0);
+		queue.offer(root);
+		open.put(start, root);
+
+		while (!queue.isEmpty()) {
+			FrontierNode node = queue.poll();
+			if (open.get(node.state) != node) {
+				continue;   // ѱСgĽ滻
+			}
+			if (original ? problem.goal(node.state) : node.state.equals(target)) {
+				return new Segment(node.g, node.relay, node.relayG);
+			}
+			open.remove(node.state);
+			nodesExpanded++;
+
+			int index = 0;
+			for (Action action : node.state.actions()) {
+				int bit = 1 << index++;
+				if ((node.used & bit) != 0 || !problem.applicable(node.state, action)) {
+					continue;
+				}
+				State child = node.state.next(action);
+				int g = node.g + problem.stepCost(child, action);
+				int back = inverseBit(child, node.state);
+				nodesGenerated++;
+
+				FrontierNode known = open.get(child);
+				if (known != null) {
+					known.used |= back;
+					if (known.g <= g) {
+						continue;
+					}
+				}
+
+				State relay = node.relay;
+				int relayG = node.relayG;
+				if (relay == null && g >= middle) {
+					// Խе㣺Ŀ걾м̣ø㣻ʱһֻһ
+					if (!child.equals(target)) {
+						relay = child;
+						relayG = g;
+					} else if (node.state != start) {
+						relay = node.state;
+						relayG = node.g;
+					}
+				}
+				int used = known == null ? back : known.used;
+				int h = known == null ? estimate(child, offset) : known.h;
+				FrontierNode created = new FrontierNode(child, g, h, used, relay, relayG);
+				open.put(child, created);
+				queue.offer(created);
+			}
+			peakOpen = Math.max(peakOpen, open.size());
+		}
+		return null;
+	}
+
+	private int estimate(State state, int offset) {
+		return Math.max(0, predictor.heuristics(state, problem.getGoal()) - offset);
+	}
+
+	/**
+	 * childĶҵصparentǸı־λ
+	 */
+	private int inverseBit(State child, State parent) {
+		int index = 0;
+		for (Action action : child.actions()) {
+			if (problem.applicable(child, action) && child.next(action).equals(parent)) {
+				return 1 << index;
+			}
+			index++;
+		}
+		throw new IllegalStateException("ǰҪÿ涯: " + parent + " -> " + child);
+	}
+
+	/**
+	 * @return Open
+	 */
+	public int getPeakOpen() {
+		return peakOpen;
+	}
+
+	/**
+	 * @return (ع)ִеǰ
+	 */
+	public int getSearches() {
+		return searches;
+	}
+}
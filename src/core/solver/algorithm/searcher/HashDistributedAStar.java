@@ -0,0 +1,313 @@
+package core.solver.algorithm.searcher;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.queue.EvaluationType;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+/**
+ * ϣֲʽA*(HDA*)
+ * ÿ״̬ϣֵһ̣߳ÿ߳άԼOpenClosed(״̬ -> Сg)
+ * ɵӽ̣߳ȷŽ̵߳λ壬һͶݵԷ䡣
+ *
+ * ֹ⣺ҵýΪincumbent̹߳ԼOpen(δͶݻ)еСf
+ * ;Ϊ0̹߳СfСincumbentʱûн㻹ܸĽ⣬
+ * Ϊ˷ֹȡ߳СfĹн̼߳תƣǰȽͶݰ汾ţһ
+ *
+ * ֻ߳չfȫСf + slackĽ㣺Сfȡ̵߳Сֵ
+ * ̵߳ĶͷʱȰѻͶݳȥóCPUȳиСf߳ƽ
+ * ڵһ֮ǰ̻߳űõĽȥչfԶŽ۵Ľ㡣
+ *  ǰh(n)ɲ
+ */
+public final class HashDistributedAStar extends AbstractSearcher {
+
+	private static final int BATCH_SIZE = 64;       // ÿͶݵĽ
+	private static final int FLUSH_INTERVAL = 256;  // ÿչôǿͶһλ
+
+	private final Predictor predictor;
+	private final int threads;
+	private int slack;
+
+	// ״̬
+	private Problem problem;
+	private List<ConcurrentLinkedQueue<Node[]>> mailboxes;
+	private AtomicIntegerArray openMin;          // ̹߳Сf
+	private final AtomicLong inFlight = new AtomicLong();   // ͶδĽ
+	private final AtomicLong sendVersion = new AtomicLong(); // ÿͶݼһ
+	private final AtomicInteger incumbent = new AtomicInteger();
+	private final AtomicReference<Node> goalNode = new AtomicReference<>();
+	private volatile boolean finished;
+
+	/**
+	 * @param frontier 㸸ӿڣ߳ʹԼOpen
+	 * @param predictor Ԥ
+	 * @param threads ߳
+	 */
+	public HashDistributedAStar(Frontier frontier, Predictor predictor, int threads) {
+		super(frontier);
+		this.predictor = predictor;
+		this.threads = Math.max(1, threads);
+	}
+
+	public HashDistributedAStar(Frontier frontier, Predictor predictor) {
+		this(frontier, predictor, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * չޣֻչfȫСf + slackĽ㣬ĬΪ0
+	 */
+	public void setSlack(int slack) {
+		this.slack = Math.max(0, slack);
+	}
+
+	@Override
+	public Deque<Node> search(Problem problem) {
+		if (!problem.solvable()) {
+			return null;
+		}
+
+		this.problem = problem;
+		frontier.clear();
+		explored.clear();
+		nodesExpanded = 0;
+		nodesGenerated = 0;
+
+		mailboxes = new ArrayList<>(threads);
+		for (int i = 0; i < threads; i++) {
+			mailboxes.add(new ConcurrentLinkedQueue<>());
+		}
+		openMin = new AtomicIntegerArray(threads);
+		for (int i = 0; i < threads; i++) {
+			openMin.set(i, Integer.MAX_VALUE);
+		}
+		inFlight.set(0);
+		sendVersion.set(0);
+		incumbent.set(Integer.MAX_VALUE);
+		goalNode.set(null);
+		finished = false;
+
+		// ΪһͶݽ
+		Node root = problem.root(predictor);
+		inFlight.incrementAndGet();
+		sendVersion.incrementAndGet();
+		mailboxes.get(ownerOf(root.getState())).add(new Node[]{root});
+
+		Worker[] workers = new Worker[threads];
+		Thread[] handles = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Worker(i);
+			handles[i] = new Thread(workers[i], "hda-worker-" + i);
+			handles[i].start();
+		}
+		try {
+			for (Thread handle : handles) {
+				handle.join();
+			}
+		} catch (InterruptedException e) {
+			finished = true;
+			Thread.currentThread().interrupt();
+			return null;
+		}
+
+		long expanded = 0;
+		long generated = 0;
+		for (Worker worker : workers) {
+			expanded += worker.expanded;
+			generated += worker.generated;
+		}
+		nodesExpanded = (int) Math.min(Integer.MAX_VALUE, expanded);
+		nodesGenerated = (int) Math.min(Integer.MAX_VALUE, generated);
+
+		Node goal = goalNode.get();
+		return goal == null ? null : generatePath(goal);
+	}
+
+	/**
+	 * ״̬̣߳ԹϣֵٻһΣλֲ
+	 */
+	private int ownerOf(State state) {
+		int h = state.hashCode() * 0x9E3779B9;
+		return Math.floorMod(h ^ (h >>> 16), threads);
+	}
+
+	/**
+	 * ;Ϊ0̵߳СfСincumbentʱֹ
+	 * ڼµͶϱμ
+	 */
+	private boolean canTerminate() {
+		long version = sendVersion.get();
+		if (inFlight.get() != 0) {
+			return false;
+		}
+		int bound = incumbent.get();
+		for (int i = 0; i < threads; i++) {
+			if (openMin.get(i) < bound) {
+				return false;
+			}
+		}
+		return sendVersion.get() == version;
+	}
+
+	/**
+	 * ̹߳Сf
+	 */
+	private int globalMin() {
+		int min = Integer.MAX_VALUE;
+		for (int i = 0; i < threads; i++) {
+			min = Math.min(min, openMin.get(i));
+		}
+		return min;
+	}
+
+	private final class Worker implements Runnable {
+		private final int id;
+		private final PriorityQueue<Node> open = new PriorityQueue<>(Node.evaluator(EvaluationType.FULL));
+		private final Map<State, Integer> bestG = new HashMap<>();
+		private final List<List<Node>> outgoing = new ArrayList<>();
+		private int outgoingMin = Integer.MAX_VALUE;
+		private long expanded;
+		private long generated;
+
+		Worker(int id) {
+			this.id = id;
+			for (int i = 0; i < threads; i++) {
+				outgoing.add(new ArrayList<>(BATCH_SIZE));
+			}
+		}
+
+		@Override
+		public void run() {
+			int sinceFlush = 0;
+			while (!finished) {
+				receive();
+
+				Node node = open.peek();
+				if (node == null || node.evaluation() >= incumbent.get()) {
+					// ûܸĽĽ㣺ѻȫͶݳȥټǷֹ
+					flushAll();
+					publishMin();
+					if (canTerminate()) {
+						finished = true;
+					} else {
+						Thread.yield();
+					}
+					continue;
+				}
+				if (node.evaluation() - slack > globalMin()) {
+					// ߳иСfչпҪĽ㣬Ͷ
+					flushAll();
+					Thread.yield();
+					continue;
+				}
+
+				open.poll();
+				Integer known = bestG.get(node.getState());
+				if (known != null && known < node.getPathCost()) {
+					continue;   // ʱOpen
+				}
+
+				if (problem.goal(node.getState())) {
+					updateIncumbent(node);
+					publishMin();
+					continue;
+				}
+
+				expanded++;
+				for (Node child : problem.childNodes(node, predictor)) {
+					generated++;
+					int owner = ownerOf(child.getState());
+					if (owner == id) {
+						insert(child);
+					} else {
+						List<Node> batch = outgoing.get(owner);
+						batch.add(child);
+						outgoingMin = Math.min(outgoingMin, child.evaluation());
+						if (batch.size() >= BATCH_SIZE) {
+							send(owner);
+						}
+					}
+				}
+				publishMin();
+
+				if (++sinceFlush >= FLUSH_INTERVAL) {
+					flushAll();
+					sinceFlush = 0;
+				}
+			}
+		}
+
+		/**
+		 * еΣȹµСfټ;
+		 */
+		private void receive() {
+			ConcurrentLinkedQueue<Node[]> mailbox = mailboxes.get(id);
+			Node[] batch;
+			while ((batch = mailbox.poll()) != null) {
+				for (Node node : batch) {
+					insert(node);
+				}
+				publishMin();
+				inFlight.addAndGet(-batch.length);
+			}
+		}
+
+		private void insert(Node node) {
+			Integer known = bestG.get(node.getState());
+			if (known != null && known <= node.getPathCost()) {
+				return;
+			}
+			bestG.put(node.getState(), node.getPathCost());
+			open.offer(node);
+		}
+
+		/**
+		 * ͶݷownerĻ壺ȼ;Ͱ汾ţٷŽԷ
+		 */
+		private void send(int owner) {
+			List<Node> batch = outgoing.get(owner);
+			if (batch.isEmpty()) {
+				return;
+			}
+			inFlight.addAndGet(batch.size());
+			sendVersion.incrementAndGet();
+			mailboxes.get(owner).add(batch.toArray(new Node[0]));
+			batch.clear();
+		}
+
+		private void flushAll() {
+			for (int owner = 0; owner < threads; owner++) {
+				send(owner);
+			}
+			outgoingMin = Integer.MAX_VALUE;
+			publishMin();
+		}
+
+		/**
+		 * СfδͶݵĻҲ
+		 */
+		private void publishMin() {
+			Node head = open.peek();
+			int min = head == null ? Integer.MAX_VALUE : head.evaluation();
+			openMin.set(id, Math.min(min, outgoingMin));
+		}
+
+		private void updateIncumbent(Node goal) {
+			// incumbentһ£ֹ֤ʱĽһ
+			synchronized (goalNode) {
+				if (goal.getPathCost() < incumbent.get()) {
+					goalNode.set(goal);
+					incumbent.set(goal.getPathCost());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package core.solver.algorithm.searcher;
+
+import java.util.*;
+
+import core.problem.Problem;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+/**
+ * չA*
+ * hһʱӽfСڸf븸fȵӽѾFrontierfСĽ㣬ܻᱻȡ
+ * ˲ŽFrontierѹһСջ(ȳ)ջʱȴջȡչʡһӺͳӡ
+ * ֻfӽŽFrontierֻıfͬĽ֮չ˳򣬽ŵġ
+ *  ǰh(n)㵥ƣFrontierʹFULL
+ */
+public final class ImmediateExpansionSearcher extends AbstractSearcher {
+
+	private final Predictor predictor;
+
+	// ͳ
+	private long immediateExpansions;
+	private long frontierOffers;
+
+	/**
+	 * @param frontier  ʹFULLFrontier
+	 * @param predictor Ԥ
+	 */
+	public ImmediateExpansionSearcher(Frontier frontier, Predictor predictor) {
+		super(frontier);
+		this.predictor = predictor;
+	}
+
+	@Override
+	public Deque<Node> search(Problem problem) {
+		if (!problem.solvable()) {
+			return null;
+		}
+
+		frontier.clear();
+		explored.clear();
+		nodesExpanded = 0;
+		nodesGenerated = 0;
+		immediateExpansions = 0;
+		frontierOffers = 0;
+
+		Deque<Node> stack = new ArrayDeque<>();
+		frontier.offer(problem.root(predictor));
+
+		while (!stack.isEmpty() || !frontier.isEmpty()) {
+			Node node;
+			if (stack.isEmpty()) {
+				node = frontier.poll();
+			} else {
+				node = stack.pop();
+				immediateExpansions++;
+			}
+			if (expanded(node)) {
+				continue;   // ͬһ״̬Ѿջչ
+			}
+			if (problem.goal(node.getState())) {
+				return generatePath(node);
+			}
+
+			explored.add(node.getState());
+			nodesExpanded++;
+			for (Node child : problem.childNodes(node, predictor)) {
+				nodesGenerated++;
+				if (expanded(child)) {
+					continue;
+				}
+				if (child.evaluation() == node.evaluation()) {
+					stack.push(child);
+				} else {
+					frontier.offer(child);
+					frontierOffers++;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return вFrontierֱӴջȡĽ
+	 */
+	public long getImmediateExpansions() {
+		return immediateExpansions;
+	}
+
+	/**
+	 * @return FrontierĽ
+	 */
+	public long getFrontierOffers() {
+		return frontierOffers;
+	}
+}
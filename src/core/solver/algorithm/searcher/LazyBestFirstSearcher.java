@@ -0,0 +1,133 @@
+package core.solver.algorithm.searcher;
+
+import java.util.*;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+/**
+ * ӳֵA*(Lazy A*)
+ * ӽʱô۸ߵԤ(ģʽݿ)ֻһ۵½磺max(Ԥֵ, h - )
+ * hһʱǳ㵽FrontierͷʱðԤֵfͷŻFrontierչ
+ * δͷĽ()˲زĿhΪ0ȡʱҪֵ
+ *  ǰh(n)㵥ƣ۵h(n)FrontierʹFULL
+ */
+public final class LazyBestFirstSearcher extends AbstractSearcher {
+
+	private final Predictor predictor;
+	private final Predictor cheapPredictor;
+
+	// ״̬
+	private final Map<State, Integer> exactH = new HashMap<>();
+	private final Map<State, Node> openNodes = new HashMap<>();
+	private long expensiveEvaluations;
+	private long reinsertions;
+
+	/**
+	 * @param frontier       ʹFULLFrontier
+	 * @param predictor      Ԥֻڽ㵽ͷʱ
+	 * @param cheapPredictor ӽʱʹõԤΪnullʱֻøhƳ½
+	 */
+	public LazyBestFirstSearcher(Frontier frontier, Predictor predictor, Predictor cheapPredictor) {
+		super(frontier);
+		this.predictor = predictor;
+		this.cheapPredictor = cheapPredictor;
+	}
+
+	public LazyBestFirstSearcher(Frontier frontier, Predictor predictor) {
+		this(frontier, predictor, null);
+	}
+
+	@Override
+	public Deque<Node> search(Problem problem) {
+		if (!problem.solvable()) {
+			return null;
+		}
+
+		frontier.clear();
+		explored.clear();
+		exactH.clear();
+		openNodes.clear();
+		nodesExpanded = 0;
+		nodesGenerated = 0;
+		expensiveEvaluations = 0;
+		reinsertions = 0;
+
+		State goal = problem.getGoal();
+		offer(problem.root());
+
+		while (!frontier.isEmpty()) {
+			Node node = frontier.poll();
+			State state = node.getState();
+			openNodes.remove(state);
+			if (problem.goal(state)) {
+				return generatePath(node);
+			}
+			if (expanded(node)) {
+				continue;
+			}
+
+			// ͷȷhͬһ״ֻ̬һ
+			Integer h = exactH.get(state);
+			if (h == null) {
+				h = predictor.heuristics(state, goal);
+				expensiveEvaluations++;
+				exactH.put(state, h);
+			}
+			if (h > node.getHeuristic()) {
+				offer(node.setHeuristic(h));
+				reinsertions++;
+				continue;
+			}
+
+			explored.add(state);
+			nodesExpanded++;
+			for (Node child : problem.childNodes(node)) {
+				nodesGenerated++;
+				if (expanded(child)) {
+					continue;
+				}
+				State childState = child.getState();
+				Node open = openNodes.get(childState);
+				if (open != null) {
+					// ͬһ״̬Frontierнh֤gСĽһ滻
+					child.setHeuristic(open.getHeuristic());
+				} else {
+					int bound = node.getHeuristic() - (child.getPathCost() - node.getPathCost());
+					Integer known = exactH.get(childState);
+					if (known != null) {
+						bound = known;
+					} else if (cheapPredictor != null) {
+						bound = Math.max(bound, cheapPredictor.heuristics(childState, goal));
+					}
+					child.setHeuristic(Math.max(0, bound));
+				}
+				offer(child);
+			}
+		}
+		return null;
+	}
+
+	private void offer(Node node) {
+		if (frontier.offer(node)) {
+			openNodes.put(node.getState(), node);
+		}
+	}
+
+	/**
+	 * @return ðԤĴ
+	 */
+	public long getExpensiveEvaluations() {
+		return expensiveEvaluations;
+	}
+
+	/**
+	 * @return ֵf󡢷ŻFrontierĴ
+	 */
+	public long getReinsertions() {
+		return reinsertions;
+	}
+}
@@ -0,0 +1,144 @@
+package core.solver.algorithm.searcher;
+
+import java.util.*;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+/**
+ * ´򿪽A*ڲһµ(ģʽݿȡ󡢶żѡ)
+ * ҵչ״̬ĸСgʱ·ŻFrontierֻҪhɲɽŵġ
+ * ѡBPMX(˫·ֵ)չʱ h() -  ߸hf˱ͷŻFrontierչ
+ *  h() -  ӽh߹h״̬֮ɸ״̬ʱֱʹá
+ *  ǰh(n)ɲɣFrontierʹFULL
+ */
+public final class ReopeningBestFirstSearcher extends AbstractSearcher {
+
+	private final Predictor predictor;
+	private boolean bpmx;
+
+	// ״̬
+	private final Map<State, Integer> bestG = new HashMap<>();
+	private final Map<State, Integer> raisedH = new HashMap<>();
+	private long reopened;
+	private long bpmxDeferrals;
+
+	/**
+	 * @param frontier  ʹFULLFrontier
+	 * @param predictor ɲɵԤԲһ
+	 * @param bpmx      ǷBPMX
+	 */
+	public ReopeningBestFirstSearcher(Frontier frontier, Predictor predictor, boolean bpmx) {
+		super(frontier);
+		this.predictor = predictor;
+		this.bpmx = bpmx;
+	}
+
+	public ReopeningBestFirstSearcher(Frontier frontier, Predictor predictor) {
+		this(frontier, predictor, true);
+	}
+
+	@Override
+	public Deque<Node> search(Problem problem) {
+		if (!problem.solvable()) {
+			return null;
+		}
+
+		frontier.clear();
+		explored.clear();
+		bestG.clear();
+		raisedH.clear();
+		nodesExpanded = 0;
+		nodesGenerated = 0;
+		reopened = 0;
+		bpmxDeferrals = 0;
+
+		Node root = problem.root(predictor);
+		bestG.put(root.getState(), 0);
+		frontier.offer(root);
+
+		while (!frontier.isEmpty()) {
+			Node node = frontier.poll();
+			State state = node.getState();
+			if (node.getPathCost() > bestG.get(state)) {
+				continue;   // иСgĽ
+			}
+			if (problem.goal(state)) {
+				return generatePath(node);
+			}
+
+			List<Node> children = problem.childNodes(node, predictor);
+			if (bpmx && !children.isEmpty()) {
+				int h = node.getHeuristic();
+				for (Node child : children) {
+					h = Math.max(h, childHeuristic(child) - stepCost(node, child));
+				}
+				if (h > node.getHeuristic()) {
+					// fˣȷŻFrontierֵʱչ
+					raisedH.put(state, h);
+					frontier.offer(node.setHeuristic(h));
+					bpmxDeferrals++;
+					continue;
+				}
+				for (Node child : children) {
+					child.setHeuristic(Math.max(child.getHeuristic(), h - stepCost(node, child)));
+				}
+			}
+
+			if (!explored.add(state)) {
+				reopened++;
+			}
+			nodesExpanded++;
+			for (Node child : children) {
+				nodesGenerated++;
+				State childState = child.getState();
+				Integer known = bestG.get(childState);
+				if (known != null && known <= child.getPathCost()) {
+					continue;
+				}
+				bestG.put(childState, child.getPathCost());
+				frontier.offer(child);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * ӽhȡԤֵ֮ǰBPMX߹ֵнϴ
+	 */
+	private int childHeuristic(Node child) {
+		Integer raised = raisedH.get(child.getState());
+		if (raised != null && raised > child.getHeuristic()) {
+			child.setHeuristic(raised);
+		}
+		return child.getHeuristic();
+	}
+
+	private static int stepCost(Node parent, Node child) {
+		return child.getPathCost() - parent.getPathCost();
+	}
+
+	/**
+	 * ǷBPMX
+	 */
+	public void setBpmx(boolean bpmx) {
+		this.bpmx = bpmx;
+	}
+
+	/**
+	 * @return չ״̬չĴ
+	 */
+	public long getReopened() {
+		return reopened;
+	}
+
+	/**
+	 * @return BPMXfƳչĴ
+	 */
+	public long getBpmxDeferrals() {
+		return bpmxDeferrals;
+	}
+}
@@ -0,0 +1,267 @@
+package core.solver.algorithm.searcher;
+
+import java.util.*;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+/**
+ * 򻯵ڴA*(SMA*)
+ * ڴౣmaxNodes㡣fȡ·ֵ f(s) = max(f(n), g(s)+h(s))
+ * չӽСfشȡ
+ * ڴʱɾf(ͬfʱǳ)Ҷ㣬fڸ"Сֵ"
+ * ֵ½Openֵʱٰӽɳ
+ * OpenΪ֣Ҷ(f)ӽڲ(Сֵ)
+ * ߵļǾýĽ۵½磬ÿȡмСĽ㣬ȡĿŽ
+ * (ڴ·ǰ)ɾֻҶĩ˽С
+ *  ǰh(n)ɲ
+ */
+public final class SmaStarSearcher extends AbstractSearcher {
+
+	public static final int DEFAULT_MAX_NODES = 1_000_000;
+
+	private final Predictor predictor;
+	private final int maxNodes;
+
+	// ״̬
+	private Problem problem;
+	private TreeSet<SmaNode> leaves;
+	private TreeSet<SmaNode> partial;
+	private Map<State, SmaNode> memory;   // ״̬ -> ڴgСĽ
+	private int stored;                   // ڴеĽ
+	private long nextId;
+	private long droppedNodes;
+	private int peakNodes;
+
+	/**
+	 * @param frontier 㸸ӿڣSMA*ʹԼOpen
+	 * @param predictor Ԥ
+	 * @param maxNodes ڴౣĽ
+	 */
+	public SmaStarSearcher(Frontier frontier, Predictor predictor, int maxNodes) {
+		super(frontier);
+		this.predictor = predictor;
+		this.maxNodes = Math.max(2, maxNodes);
+	}
+
+	public SmaStarSearcher(Frontier frontier, Predictor predictor) {
+		this(frontier, predictor, DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * ڴеĽ
+	 */
+	private final class SmaNode {
+		final Node node;
+		final SmaNode parent;
+		final int depth;
+		final long id = nextId++;
+		final List<SmaNode> children = new ArrayList<>(4);
+		int f;
+		int forgottenMin = Integer.MAX_VALUE;
+		int openKey;            // Openʱļǰȷڱʱ
+		TreeSet<SmaNode> owner; // ڵOpenOpenʱΪnull
+
+		SmaNode(Node node, SmaNode parent, int f) {
+			this.node = node;
+			this.parent = parent;
+			this.depth = parent == null ? 0 : parent.depth + 1;
+			this.f = f;
+		}
+	}
+
+	// СǰͬʱǰһǼǳ
+	private static final Comparator<SmaNode> ORDER = (a, b) -> {
+		if (a.openKey != b.openKey) {
+			return Integer.compare(a.openKey, b.openKey);
+		}
+		if (a.depth != b.depth) {
+			return Integer.compare(b.depth, a.depth);
+		}
+		return Long.compare(a.id, b.id);
+	};
+
+	@Override
+	public Deque<Node> search(Problem problem) {
+		if (!problem.solvable()) {
+			return null;
+		}
+
+		this.problem = problem;
+		frontier.clear();
+		explored.clear();
+		nodesExpanded = 0;
+		nodesGenerated = 0;
+		leaves = new TreeSet<>(ORDER);
+		partial = new TreeSet<>(ORDER);
+		memory = new HashMap<>();
+		stored = 1;
+		nextId = 0;
+		droppedNodes = 0;
+		peakNodes = 0;
+
+		Node rootNode = problem.root(predictor);
+		SmaNode root = new SmaNode(rootNode, null, rootNode.evaluation());
+		memory.put(rootNode.getState(), root);
+		addToOpen(root, root.f);
+
+		while (!leaves.isEmpty() || !partial.isEmpty()) {
+			SmaNode best = pollBest();
+			if (best.openKey == Integer.MAX_VALUE) {
+				// ʣµĽ㶼ûϣڴ治κν
+				return null;
+			}
+
+			if (problem.goal(best.node.getState())) {
+				return generatePath(best.node);
+			}
+
+			expand(best);
+			peakNodes = Math.max(peakNodes, stored);
+			while (stored > maxNodes && dropWorstLeaf()) {
+				// ɾڴԤ
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * ɽȫӽвڴĲ(״չӽ)
+	 */
+	private void expand(SmaNode parent) {
+		nodesExpanded++;
+		parent.forgottenMin = Integer.MAX_VALUE;
+
+		if (parent.depth >= maxNodes - 1) {
+			// ڴŲ·
+			parent.f = Integer.MAX_VALUE;
+			backup(parent.parent);
+			addToOpen(parent, parent.f);
+			return;
+		}
+
+		for (Node child : problem.childNodes(parent.node, predictor)) {
+			nodesGenerated++;
+			SmaNode known = memory.get(child.getState());
+			if (known != null && known.node.getPathCost() <= child.getPathCost()) {
+				continue;   // ڴвĽ(ڴֵܺ)
+			}
+			SmaNode node = new SmaNode(child, parent, Math.max(parent.f, child.evaluation()));
+			parent.children.add(node);
+			memory.put(child.getState(), node);
+			stored++;
+			addToOpen(node, node.f);
+		}
+
+		if (parent.children.isEmpty()) {
+			// ·ûпõӽ㣬ȴɾ
+			parent.f = Integer.MAX_VALUE;
+			addToOpen(parent, parent.f);
+			backup(parent.parent);
+		} else {
+			backup(parent);
+		}
+	}
+
+	/**
+	 * ¶ϸfӽӽfСֵûб仯ʱֹͣ
+	 */
+	private void backup(SmaNode node) {
+		while (node != null && !node.children.isEmpty()) {
+			int updated = Math.min(minChildF(node), node.forgottenMin);
+			if (updated == node.f) {
+				return;
+			}
+			node.f = updated;
+			node = node.parent;
+		}
+	}
+
+	private int minChildF(SmaNode node) {
+		int min = Integer.MAX_VALUE;
+		for (SmaNode child : node.children) {
+			min = Math.min(min, child.f);
+		}
+		return min;
+	}
+
+	/**
+	 * ɾfǳҶ㣬fǵСֵ
+	 * @return Ƿɾ˽
+	 */
+	private boolean dropWorstLeaf() {
+		Iterator<SmaNode> candidates = leaves.descendingIterator();
+		while (candidates.hasNext()) {
+			SmaNode leaf = candidates.next();
+			if (leaf.parent == null) {
+				continue;   // 㲻ɾ
+			}
+			candidates.remove();
+			leaf.owner = null;
+			if (memory.get(leaf.node.getState()) == leaf) {
+				memory.remove(leaf.node.getState());
+			}
+			stored--;
+			droppedNodes++;
+
+			SmaNode parent = leaf.parent;
+			parent.children.remove(leaf);
+			removeFromOpen(parent);
+			parent.forgottenMin = Math.min(parent.forgottenMin, leaf.f);
+			if (parent.children.isEmpty()) {
+				parent.f = parent.forgottenMin;
+			}
+			addToOpen(parent, parent.forgottenMin);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * ȡűмСĽ㣬ͬʱȡҶ
+	 */
+	private SmaNode pollBest() {
+		SmaNode leaf = leaves.isEmpty() ? null : leaves.first();
+		SmaNode inner = partial.isEmpty() ? null : partial.first();
+		SmaNode best = inner == null || (leaf != null && leaf.openKey <= inner.openKey) ? leaf : inner;
+		removeFromOpen(best);
+		return best;
+	}
+
+	/**
+	 * ûڴӽķҶڲ
+	 */
+	private void addToOpen(SmaNode node, int key) {
+		node.openKey = key;
+		node.owner = node.children.isEmpty() ? leaves : partial;
+		node.owner.add(node);
+	}
+
+	private void removeFromOpen(SmaNode node) {
+		if (node.owner != null) {
+			node.owner.remove(node);
+			node.owner = null;
+		}
+	}
+
+	/**
+	 * @return ɾ()Ľ
+	 */
+	public long getDroppedNodes() {
+		return droppedNodes;
+	}
+
+	/**
+	 * @return ڴͬʱڵ
+	 */
+	public int getPeakNodes() {
+		return peakNodes;
+	}
+
+	public int getMaxNodes() {
+		return maxNodes;
+	}
+}
@@ -0,0 +1,79 @@
+package stud.g01.heuristic;
+
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * ̨лԤ
+ * ýԤ(پСģʽݿ)
+ * ͬʱں̨߳мػ򹹽ǿԤɺͨvolatileԭӵлȥ
+ *
+ * лǰֵǿɲɵġIDA*Ӱ죻
+ * ؿչڵA*ǡлʱУҪϸŽʱӦsnapshot()̶Ԥ
+ * EngineFeederSnapshotSearcherÿʼʱԶ̶
+ */
+public class BackgroundPatternPredictor implements Predictor {
+    // ֻ߳ȴĹPatternDatabaseBuildSchedulerƲ
+    // ˲ٴУ󴴽ĽԤԤصĺ
+    private static final ExecutorService BUILD_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "pdb-background-build");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private volatile Predictor current;
+    private final CompletableFuture<Predictor> ready;
+
+    /**
+     * @param name     Ԥƣ־
+     * @param fallback ǿԤǰʹõԤ
+     * @param loader   ں̨߳мػ򹹽ǿԤ
+     */
+    public BackgroundPatternPredictor(String name, Predictor fallback, Supplier<? extends Predictor> loader) {
+        this.name = name;
+        this.current = fallback;
+        this.ready = CompletableFuture.supplyAsync(loader, BUILD_EXECUTOR)
+                .thenApply(predictor -> {
+                    current = predictor;
+                    System.out.println("Ԥ " + name + " лģʽݿ");
+                    return (Predictor) predictor;
+                });
+        this.ready.exceptionally(e -> {
+            System.out.println("Ԥ " + name + " ̨ʧܣʹûԤ: " + e.getMessage());
+            return null;
+        });
+    }
+
+    @Override
+    public int heuristics(State state, State goal) {
+        return current.heuristics(state, goal);
+    }
+
+    /**
+     * ǿԤʱɣʧʱ쳣
+     */
+    public CompletableFuture<Predictor> whenReady() {
+        return ready;
+    }
+
+    public boolean isReady() {
+        return ready.isDone() && !ready.isCompletedExceptionally();
+    }
+
+    /**
+     * ǰʹõԤһʹԱ;л
+     */
+    public Predictor snapshot() {
+        return current;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
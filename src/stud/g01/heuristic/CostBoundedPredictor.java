@@ -0,0 +1,22 @@
+package stud.g01.heuristic;
+
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+
+/**
+ * Ҫ֪ǰϽԤ
+ * ÿεʼǰֵԤԤԾݴ˰Լı
+ * ֻһЧÿforSearch()ȡԼԤʵ֮乲á
+ */
+public interface CostBoundedPredictor extends Predictor {
+    /**
+     * εĴϽ磬fֵĽڵᱻ
+     */
+    void setCostBound(int bound);
+
+    /**
+     * ΪһԤѾĹֵ
+     * setCostBound()(A*)ֱʹ
+     */
+    CostBoundedPredictor forSearch(State initial, State goal);
+}
@@ -0,0 +1,16 @@
+package stud.g01.heuristic;
+
+import core.problem.Action;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+
+/**
+ * ֱӸһƶh仯Ԥ
+ * չѡ f ǡõĳֵӽ㣬ȫӽh
+ */
+public interface DeltaPredictor extends Predictor {
+    /**
+     * @return h(state.next(action)) - h(state)ǰӦ֤actionstateϿ
+     */
+    int delta(State state, Action action, State goal);
+}
@@ -0,0 +1,84 @@
+package stud.g01.heuristic;
+
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.solver.heuristic.ManhattanPredictor;
+import stud.g01.solver.pattern.HierarchicalPatternTable;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical A*ļģʽԤ
+ * ʱκαѯʱڳռסѧĳ롣
+ * ֻʵʵʷʵǲֳռϣʺں̵ܶ
+ */
+public class HierarchicalPatternPredictor implements Predictor {
+    // ÿ黺ĳ״̬
+    private static final int DEFAULT_CAPACITY = 1000000;
+
+    private final int[][] groups;
+    private final int capacity;
+    private final ManhattanPredictor fallback = new ManhattanPredictor();
+
+    private volatile HierarchicalPatternTable[] tables;
+
+    /**
+     * ʹðߴѡĬϷ
+     */
+    public HierarchicalPatternPredictor() {
+        this(null, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param groups   ཻĴש飬Ϊnullʱƴͼߴѡ
+     * @param capacity ÿ黺ĳ״̬
+     */
+    public HierarchicalPatternPredictor(int[][] groups, int capacity) {
+        this.groups = groups;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public int heuristics(State state, State goal) {
+        PuzzleBoard board = (PuzzleBoard) state;
+        if (!InstancePatternPredictor.isStandardGoal((PuzzleBoard) goal)) {
+            return fallback.heuristics(state, goal);
+        }
+
+        int heuristic = 0;
+        for (HierarchicalPatternTable table : tablesFor(board.getSize())) {
+            heuristic += table.getHeuristic(board);
+        }
+        return heuristic;
+    }
+
+    private HierarchicalPatternTable[] tablesFor(int size) {
+        HierarchicalPatternTable[] current = tables;
+        if (current == null) {
+            synchronized (this) {
+                current = tables;
+                if (current == null) {
+                    int[][] selected = groups != null ? groups : InstancePatternPredictor.defaultGroups(size);
+                    current = new HierarchicalPatternTable[selected.length];
+                    for (int i = 0; i < selected.length; i++) {
+                        current[i] = new HierarchicalPatternTable(selected[i], size, capacity);
+                    }
+                    System.out.println("ֲԤ: " + Arrays.deepToString(selected));
+                    tables = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public void printStatistics() {
+        System.out.println("=== ֲԤͳ ===");
+        HierarchicalPatternTable[] current = tables;
+        if (current != null) {
+            for (HierarchicalPatternTable table : current) {
+                table.printStatistics();
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package stud.g01.heuristic;
+
+import core.problem.State;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.solver.heuristic.ManhattanPredictor;
+import stud.g01.solver.pattern.OnDemandPatternTable;
+
+import java.util.Arrays;
+
+/**
+ * ʵ蹹ļģʽݿԤ
+ * ԤȹȫֵĴΪÿ½СȼĹֵ
+ * IDA*ÿεǰֵֻǱĴϽڵĳ״̬
+ * PuzzleFeederʵֻΪԭͣͨforSearch()ȡñԼı
+ * שཻҿոƶѣɼҲСپ롣
+ */
+public class InstancePatternPredictor implements CostBoundedPredictor {
+    // ÿű״̬ޣȫֹMAX_STATESһ
+    private static final int DEFAULT_MAX_STATES = 2000000;
+
+    private final int[][] groups;
+    private final int maxStates;
+    private final ManhattanPredictor fallback = new ManhattanPredictor();
+
+    private volatile OnDemandPatternTable[] tables;
+    private int costBound;
+
+    /**
+     * ʹðߴѡĬϷ
+     */
+    public InstancePatternPredictor() {
+        this(null, DEFAULT_MAX_STATES);
+    }
+
+    /**
+     * @param groups    ཻĴש飬Ϊnullʱƴͼߴѡ
+     * @param maxStates ÿű״̬
+     */
+    public InstancePatternPredictor(int[][] groups, int maxStates) {
+        this.groups = groups;
+        this.maxStates = maxStates;
+    }
+
+    @Override
+    public int heuristics(State state, State goal) {
+        PuzzleBoard board = (PuzzleBoard) state;
+        if (!isStandardGoal((PuzzleBoard) goal)) {
+            return fallback.heuristics(state, goal);
+        }
+
+        int heuristic = 0;
+        for (OnDemandPatternTable table : tablesFor(board.getSize())) {
+            heuristic += table.getHeuristic(board);
+        }
+        return heuristic;
+    }
+
+    /**
+     * ½һĹֱֵֵٳ
+     */
+    @Override
+    public InstancePatternPredictor forSearch(State initial, State goal) {
+        InstancePatternPredictor scoped = new InstancePatternPredictor(groups, maxStates);
+        if (goal instanceof PuzzleBoard && isStandardGoal((PuzzleBoard) goal)) {
+            int rootBound = scoped.heuristics(initial, goal);
+            while (rootBound > scoped.costBound) {
+                scoped.setCostBound(rootBound);
+                rootBound = scoped.heuristics(initial, goal);
+            }
+        }
+        return scoped;
+    }
+
+    /**
+     * ѸűµĴϽ
+     */
+    @Override
+    public void setCostBound(int bound) {
+        OnDemandPatternTable[] current = tables;
+        if (current == null || bound <= costBound) {
+            return;
+        }
+        costBound = bound;
+
+        long startTime = System.currentTimeMillis();
+        int totalStates = 0;
+        for (OnDemandPatternTable table : current) {
+            table.extendTo(bound);
+            totalStates += table.getSize();
+        }
+        System.out.printf("ģʽݿ %d 㣬״̬: %,dʱ: %dms\n",
+                bound, totalStates, System.currentTimeMillis() - startTime);
+    }
+
+    private OnDemandPatternTable[] tablesFor(int size) {
+        OnDemandPatternTable[] current = tables;
+        if (current == null) {
+            synchronized (this) {
+                current = tables;
+                if (current == null) {
+                    int[][] selected = groups != null ? groups : defaultGroups(size);
+                    current = new OnDemandPatternTable[selected.length];
+                    for (int i = 0; i < selected.length; i++) {
+                        current[i] = new OnDemandPatternTable(selected[i], size, maxStates);
+                    }
+                    System.out.println("ģʽݿ: " + Arrays.deepToString(selected));
+                    tables = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * ˳Ѵשгÿ鲻5ķ
+     */
+    static int[][] defaultGroups(int size) {
+        int tiles = size * size - 1;
+        int groupCount = (tiles + 4) / 5;
+        int[][] result = new int[groupCount][];
+        int next = 1;
+        for (int i = 0; i < groupCount; i++) {
+            int length = tiles / groupCount + (i < tiles % groupCount ? 1 : 0);
+            result[i] = new int[length];
+            for (int j = 0; j < length; j++) {
+                result[i][j] = next++;
+            }
+        }
+        return result;
+    }
+
+    static boolean isStandardGoal(PuzzleBoard goal) {
+        int[] tiles = goal.getPuzzleBoard();
+        for (int i = 0; i < tiles.length - 1; i++) {
+            if (tiles[i] != i + 1) {
+                return false;
+            }
+        }
+        return tiles[tiles.length - 1] == 0;
+    }
+
+    /**
+     * űչĲ
+     */
+    public int[] getCompletedDepths() {
+        OnDemandPatternTable[] current = tables;
+        if (current == null) {
+            return new int[0];
+        }
+        int[] depths = new int[current.length];
+        for (int i = 0; i < current.length; i++) {
+            depths[i] = current[i].getCompletedDepth();
+        }
+        return depths;
+    }
+}
@@ -1,13 +1,20 @@
 package stud.g01.solver.heuristic;
 
+import core.problem.Action;
 import core.problem.State;
-import core.solver.algorithm.heuristic.Predictor;
+import stud.g01.heuristic.DeltaPredictor;
+import stud.g01.problem.npuzzle.PDirection;
+import stud.g01.problem.npuzzle.PuzzleAction;
 import stud.g01.problem.npuzzle.PuzzleBoard;
 
 /**
  * پʽ
+ * һƶֻıһƵλãhı仯(, ոλ, )Ԥɱdelta()
  */
-public class ManhattanPredictor implements Predictor {
+public class ManhattanPredictor implements DeltaPredictor {
+    // һʹõĿӦı仯
+    private volatile DeltaTable deltaTable;
+
     @Override
     public int heuristics(State state, State goal) {
         PuzzleBoard current = (PuzzleBoard) state;
@@ -41,4 +48,69 @@ public class ManhattanPredictor implements Predictor {
         }
         return -1;
     }
-}
\ No newline at end of file
+
+    @Override
+    public int delta(State state, Action action, State goal) {
+        PuzzleBoard board = (PuzzleBoard) state;
+        DeltaTable table = deltaTable;
+        if (table == null || !table.goal.equals(goal)) {
+            table = new DeltaTable((PuzzleBoard) goal);
+            deltaTable = table;
+        }
+        PDirection direction = ((PuzzleAction) action).getDirection();
+        int size = board.getSize();
+        int blank = board.getZeroPos();
+        int tile = tileAt(board, blank + direction.getDeltaRow() * size + direction.getDeltaCol());
+        return table.deltas[(tile * size * size + blank) * 4 + direction.ordinal()];
+    }
+
+    private int tileAt(PuzzleBoard board, int pos) {
+        int cells = board.getSize() * board.getSize();
+        if (cells <= 16) {
+            // ѹ״̬ÿ4λһλȥ
+            return (int) (board.getCompressedState() >>> (4 * (cells - 1 - pos))) & 0xF;
+        }
+        return board.getPuzzleBoard()[pos];
+    }
+
+    /**
+     * ĳĿµı仯±Ϊ ( *  + ոλ) * 4 + 
+     * ֵΪո÷ƶ(÷ϵĽո)ýپı仯ȡ-11
+     */
+    private static final class DeltaTable {
+        final PuzzleBoard goal;
+        final int[] deltas;
+
+        DeltaTable(PuzzleBoard goal) {
+            this.goal = goal;
+            int size = goal.getSize();
+            int cells = size * size;
+            int[] goalTiles = goal.getPuzzleBoard();
+            int[] goalPos = new int[cells];
+            for (int i = 0; i < cells; i++) {
+                goalPos[goalTiles[i]] = i;
+            }
+
+            PDirection[] directions = PDirection.values();
+            deltas = new int[cells * cells * 4];
+            for (int tile = 1; tile < cells; tile++) {
+                for (int blank = 0; blank < cells; blank++) {
+                    for (PDirection direction : directions) {
+                        int row = blank / size + direction.getDeltaRow();
+                        int col = blank % size + direction.getDeltaCol();
+                        if (row < 0 || row >= size || col < 0 || col >= size) {
+                            continue;
+                        }
+                        int from = row * size + col;
+                        deltas[(tile * cells + blank) * 4 + direction.ordinal()] =
+                                distance(blank, goalPos[tile], size) - distance(from, goalPos[tile], size);
+                    }
+                }
+            }
+        }
+
+        private static int distance(int a, int b, int size) {
+            return Math.abs(a / size - b / size) + Math.abs(a % size - b % size);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * ޸ģʽݿԤ
+ * Ŀ겻Ǳ׼Ŀ״̬ʱ˵پ룬ʼհĿֵ
  */
 public class PatternDatabasePredictor implements Predictor {
     private final PatternDatabase patternDatabase;
@@ -59,6 +60,10 @@ public class PatternDatabasePredictor implements Predictor {
         if (!(state instanceof PuzzleBoard)) {
             throw new IllegalArgumentException("PatternDatabasePredictor only works for PuzzleBoard states");
         }
+        if (goal instanceof PuzzleBoard && !InstancePatternPredictor.isStandardGoal((PuzzleBoard) goal)) {
+            // ģʽݿֻԱ׼ĿĿ(MMʱĳʼ״̬)پ
+            return calculateFallbackHeuristic((PuzzleBoard) state, goal);
+        }
 
         long startTime = System.nanoTime();
         int heuristicValue = 0;
@@ -165,6 +170,29 @@ public class PatternDatabasePredictor implements Predictor {
         return -1;
     }
 
+    /**
+     * ̶Ԥģʽݿ⣬ֱunpin()֮ǰעͷ
+     * ̨ԤǰĿչ̶
+     * @return ̶ݿ⣬Ԥʹģʽݿʱnull
+     */
+    public static PatternDatabase pin(Predictor predictor) {
+        if (predictor instanceof BackgroundPatternPredictor) {
+            predictor = ((BackgroundPatternPredictor) predictor).snapshot();
+        }
+        if (!(predictor instanceof PatternDatabasePredictor)) {
+            return null;
+        }
+        PatternDatabase database = ((PatternDatabasePredictor) predictor).patternDatabase;
+        database.pin();
+        return database;
+    }
+
+    public static void unpin(PatternDatabase database) {
+        if (database != null) {
+            database.unpin();
+        }
+    }
+
     /**
      * ȡģʽݿ
      */
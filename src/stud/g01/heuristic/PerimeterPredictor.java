@@ -0,0 +1,30 @@
+package stud.g01.heuristic;
+
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import stud.g01.solver.PerimeterTable;
+
+/**
+ * Ŀܱ߱Ԥ
+ * ܱ߱ڵ״̬صĿľȷ룬״̬Ϊܱ+1(żԿټ1)Ԥȡֵ
+ * Ŀܱ߱Ŀ겻ͬʱֱʹûԤ
+ */
+public class PerimeterPredictor implements Predictor {
+    private final Predictor base;
+    private final PerimeterTable table;
+
+    public PerimeterPredictor(Predictor base, PerimeterTable table) {
+        this.base = base;
+        this.table = table;
+    }
+
+    @Override
+    public int heuristics(State state, State goal) {
+        int heuristic = base.heuristics(state, goal);
+        return table.isGoal(goal) ? table.lowerBound(state, heuristic) : heuristic;
+    }
+
+    public PerimeterTable getTable() {
+        return table;
+    }
+}
@@ -123,6 +123,14 @@ public class NPuzzleProblem extends Problem {
         return swaps;
     }
 
+    /**
+     * ոƶܷÿ۶1
+     */
+    @Override
+    public boolean reversible() {
+        return true;
+    }
+
     @Override
     public int stepCost(State state, Action action) {
         return 1;
@@ -13,12 +13,17 @@ import stud.g01.problem.npuzzle.PuzzleBoard;
 import stud.g01.queue.PqFrontier;
 import stud.g01.solver.SimpleBidirectionalIdAStar;
 import stud.g01.solver.heuristic.ManhattanPredictor;
+import stud.g01.heuristic.BackgroundPatternPredictor;
+import stud.g01.heuristic.HierarchicalPatternPredictor;
+import stud.g01.heuristic.InstancePatternPredictor;
 import stud.g01.heuristic.MisplacedPredictor;
 import stud.g01.solver.pattern.*;
+import stud.g01.solver.pattern.PatternDatabaseBuildScheduler.Priority;
 import stud.g01.solver.IdAStar;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -275,7 +280,9 @@ public class PuzzleFeeder extends EngineFeeder {
         predictorRequests.incrementAndGet();
 
         if (enableCaching && predictorCache.containsKey(type)) {
-            return predictorCache.get(type);
+            Predictor cached = predictorCache.get(type);
+            promoteIfBuilding(cached);
+            return cached;
         }
 
         Predictor predictor;
@@ -290,10 +297,17 @@ public class PuzzleFeeder extends EngineFeeder {
                     predictor = new MisplacedPredictor();
                     break;
                 case PATTERN_78:
-                    predictor = createPatternPredictor(type, "7-8", 4);
+                    predictor = createPatternPredictor(type, "7-8", 4, Priority.URGENT);
                     break;
                 case PATTERN_663:
-                    predictor = createPatternPredictor(type, "6-6-3", 4);
+                    predictor = createPatternPredictor(type, "6-6-3", 4, Priority.URGENT);
+                    break;
+                case PATTERN_INSTANCE:
+                    // ֻԭͣÿͨforSearch()½Լı
+                    predictor = new InstancePatternPredictor();
+                    break;
+                case PATTERN_HIERARCHICAL:
+                    predictor = new HierarchicalPatternPredictor();
                     break;
                 default:
                     System.out.println("δ֪ʽ: " + type + "ʹپ");
@@ -319,12 +333,16 @@ public class PuzzleFeeder extends EngineFeeder {
 
     /**
      * ģʽݿԤ
+     * ģʽݿں̨ػ򹹽ǰپ״ᱻ
      */
-    private Predictor createPatternPredictor(HeuristicType type, String patternName, int size) {
-        try {
-            System.out.println("ģʽݿԤ: " + patternName);
+    private Predictor createPatternPredictor(HeuristicType type, String patternName, int size, Priority priority) {
+        System.out.println("ģʽݿԤ: " + patternName);
 
-            PatternDatabase patternDatabase = PatternDatabaseBuilder.createByName(patternName, size);
+        return new BackgroundPatternPredictor(patternName, new ManhattanPredictor(), () -> {
+            PatternDatabase patternDatabase = PatternDatabaseBuilder.createByName(patternName, size, priority);
+            if (!patternDatabase.isLoaded()) {
+                patternDatabase.precompute();
+            }
 
             stud.g01.heuristic.PatternDatabasePredictor predictor =
                     new stud.g01.heuristic.PatternDatabasePredictor(patternDatabase);
@@ -334,14 +352,32 @@ public class PuzzleFeeder extends EngineFeeder {
             predictor.setMaxCacheSize(50000);
 
             return predictor;
+        });
+    }
 
-        } catch (Exception e) {
-            System.out.println("ģʽݿԤʧ: " + e.getMessage());
-            System.out.println("˵پ");
-            return new ManhattanPredictor();
+    /**
+     * ԤʱԵȼԤʹʱѻŶӵĹΪȼ
+     */
+    private void promoteIfBuilding(Predictor predictor) {
+        if (predictor instanceof BackgroundPatternPredictor) {
+            BackgroundPatternPredictor background = (BackgroundPatternPredictor) predictor;
+            if (!background.whenReady().isDone()) {
+                PatternDatabaseBuilder.promote(background.getName(), 4, Priority.URGENT);
+            }
         }
     }
 
+    /**
+     * ģʽݿԤʱɣģʽݿ
+     */
+    public CompletableFuture<Predictor> whenPredictorReady(HeuristicType type) {
+        Predictor predictor = getPredictor(type);
+        if (predictor instanceof BackgroundPatternPredictor) {
+            return ((BackgroundPatternPredictor) predictor).whenReady();
+        }
+        return CompletableFuture.completedFuture(predictor);
+    }
+
     /**
      * ȡ - дfinal·
      */
@@ -364,6 +400,57 @@ public class PuzzleFeeder extends EngineFeeder {
                 case "IDASTAR":
                     searcher = getIdaStar(heuristicType);
                     break;
+                case "IDASTAR_CR":
+                    searcher = getIdaStarCR(heuristicType);
+                    break;
+                case "PARALLEL_IDASTAR":
+                    searcher = getParallelIdaStar(heuristicType);
+                    break;
+                case "HDASTAR":
+                    searcher = getHdaStar(heuristicType);
+                    break;
+                case "SMASTAR":
+                    searcher = getSmaStar(heuristicType);
+                    break;
+                case "FRONTIER_ASTAR":
+                    searcher = getFrontierSearch(heuristicType);
+                    break;
+                case "ARASTAR":
+                    searcher = getAraStar(heuristicType);
+                    break;
+                case "FOCAL":
+                    searcher = getFocal(heuristicType);
+                    break;
+                case "EPEASTAR":
+                    searcher = getPartialExpansionAStar(heuristicType);
+                    break;
+                case "FRINGE":
+                    searcher = getFringeSearch(heuristicType);
+                    break;
+                case "LAZY_ASTAR":
+                    searcher = getLazyAStar(heuristicType);
+                    break;
+                case "IMMEDIATE_ASTAR":
+                    searcher = getImmediateAStar(heuristicType);
+                    break;
+                case "IDASTAR_BPMX":
+                    searcher = getIdaStarBpmx(heuristicType);
+                    break;
+                case "BPMX_ASTAR":
+                    searcher = getBpmxAStar(heuristicType);
+                    break;
+                case "EXTERNAL_ASTAR":
+                    searcher = getExternalAStar(heuristicType);
+                    break;
+                case "MM":
+                    searcher = getMeetInMiddle(heuristicType);
+                    break;
+                case "PERIMETER_IDASTAR":
+                    searcher = getPerimeterIdaStar(heuristicType);
+                    break;
+                case "PERIMETER_ASTAR":
+                    searcher = getPerimeterAStar(heuristicType);
+                    break;
                 case "BIDIRECTIONAL_IDASTAR":
                     searcher = getBidirectionalIdAStar(heuristicType);
                     break;
@@ -545,25 +632,31 @@ public class PuzzleFeeder extends EngineFeeder {
 
     /**
      * Ԥģʽݿ
+     * Ԥںֻ̨ȫ¼־
      */
     private void preloadPatternDatabases() {
         System.out.println("Ԥģʽݿ...");
 
-        Thread patternPreloadThread = new Thread(() -> {
-            try {
-                getPredictor(HeuristicType.PATTERN_78);
-
-                Thread.sleep(1000);
-                getPredictor(HeuristicType.PATTERN_663);
-
+        CompletableFuture.allOf(
+                preloadPatternPredictor(HeuristicType.PATTERN_78, "7-8"),
+                preloadPatternPredictor(HeuristicType.PATTERN_663, "6-6-3")
+        ).whenComplete((result, e) -> {
+            if (e == null) {
                 System.out.println("ģʽݿԤ");
-            } catch (Exception e) {
+            } else {
                 System.out.println("ģʽݿԤʧ: " + e.getMessage());
             }
         });
+    }
 
-        patternPreloadThread.setDaemon(true);
-        patternPreloadThread.start();
+    /**
+     * ͶȼģʽݿԤռǰҪĹ
+     */
+    private CompletableFuture<Predictor> preloadPatternPredictor(HeuristicType type, String patternName) {
+        Predictor predictor = enableCaching
+                ? predictorCache.computeIfAbsent(type, t -> createPatternPredictor(t, patternName, 4, Priority.SPECULATIVE))
+                : createPatternPredictor(type, patternName, 4, Priority.SPECULATIVE);
+        return ((BackgroundPatternPredictor) predictor).whenReady();
     }
 
     /**
@@ -0,0 +1,658 @@
+package stud.g01.solver;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.NPuzzleProblem;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A*(ӳظ)
+ * ɵĽ㰴(g, h)ͰPuzzleBoard.getCompressedState()Ϊ8ֽڼ¼׷дϵͰļ
+ * fͬfgͰȰͰⲿȥأ(g-1, h)(g-2, h)Ͱ
+ * (״̬ͼĵλͼh״̬ظֻܳ)Ȼչ
+ * ждͨFileChannelʹֱӻ˳Уڴֻ򻺳壬heapBudgetBytesơ
+ * ͰҵĿĿg-1Ͱֲ״̬ع·
+ *  ǰh(n)㵥ƣʱӽh·ֵ̧ߣȻõŽ⣬ֻȥر
+ */
+public class ExternalAStar extends AbstractSearcher {
+    public static final String WORK_DIR_PROPERTY = "external.astar.dir";
+
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+    private static final int INITIAL_SORT_BUFFER = 1 << 16;
+    private static final int MAX_FAN_IN = 64;
+
+    private final Predictor predictor;
+    private final Path workDir;
+    private final int sortBufferLongs;
+
+    // ״̬
+    private int size;
+    private int cells;
+    private State goal;
+    private Path tempDir;
+    private int fileCounter;
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+    private long recordsWritten;
+    private long duplicatesRemoved;
+
+    public ExternalAStar(Frontier frontier, Predictor predictor) {
+        this(frontier, predictor, Paths.get(System.getProperty(WORK_DIR_PROPERTY, System.getProperty("java.io.tmpdir"))),
+                Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    /**
+     * @param workDir         Ͱļ͹鲢ڵĿ¼
+     * @param heapBudgetBytes 򻺳ʹõĶڴ
+     */
+    public ExternalAStar(Frontier frontier, Predictor predictor, Path workDir, long heapBudgetBytes) {
+        super(frontier);
+        this.predictor = predictor;
+        this.workDir = workDir;
+        this.sortBufferLongs = (int) Math.max(INITIAL_SORT_BUFFER,
+                Math.min(Integer.MAX_VALUE - 8, heapBudgetBytes / Long.BYTES));
+    }
+
+    /**
+     * һ(g, h)Ͱչǰδ׷ļչظļ
+     */
+    private static final class Bucket {
+        Path unsorted;
+        long unsortedCount;
+        SortedFile sorted;
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        if (!problem.solvable()) {
+            System.out.println("޽");
+            return null;
+        }
+        if (!(problem instanceof NPuzzleProblem) || !StateKeys.canPack(problem.getInitialState())) {
+            System.out.println("A*ֻ֧״̬ѹΪlongƴͼ");
+            return null;
+        }
+
+        frontier.clear();
+        explored.clear();
+        nodesExpanded = 0;
+        nodesGenerated = 0;
+        recordsWritten = 0;
+        duplicatesRemoved = 0;
+        buckets.clear();
+        fileCounter = 0;
+
+        PuzzleBoard start = (PuzzleBoard) problem.getInitialState();
+        size = start.getSize();
+        cells = size * size;
+        goal = problem.getGoal();
+        long goalKey = StateKeys.pack(goal);
+
+        long startTime = System.currentTimeMillis();
+        try {
+            Files.createDirectories(workDir);
+            tempDir = Files.createTempDirectory(workDir, "astar_ext_");
+            System.out.println("ʼA*Ŀ¼: " + tempDir);
+
+            int startH = predictor.heuristics(start, goal);
+            try (BucketWriters writers = new BucketWriters()) {
+                writers.add(0, startH, start.getCompressedState());
+            }
+
+            int[] board = new int[cells];
+            for (int f = startH; hasPending(); f++) {
+                long layerExpanded = 0;
+                for (int g = 0; g <= f; g++) {
+                    int h = f - g;
+                    Bucket bucket = buckets.get(bucketId(g, h));
+                    if (bucket == null || bucket.unsorted == null) {
+                        continue;
+                    }
+                    SortedFile states = prepare(bucket, g, h);
+                    if (states.count == 0) {
+                        continue;
+                    }
+
+                    if (contains(states, goalKey)) {
+                        long time = System.currentTimeMillis() - startTime;
+                        System.out.printf("A*ҵ⣬: %d, չ: %,d, д¼: %,d, ȥظ: %,d, ʱ: %.2fs\n",
+                                g, nodesExpanded, recordsWritten, duplicatesRemoved, time / 1000.0);
+                        return generatePath(reconstruct(problem, goalKey, g));
+                    }
+
+                    layerExpanded += states.count;
+                    expand(states, g, f, board);
+                }
+                if (layerExpanded > 0) {
+                    System.out.printf("A* f=%d: չ %,d ״̬, ۼ %,d\n", f, layerExpanded, nodesExpanded);
+                }
+            }
+            System.out.println("A*ͰѴ꣬޽");
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("A*дʧ", e);
+        } finally {
+            buckets.clear();
+            deleteTempDir();
+        }
+    }
+
+    private static long bucketId(int g, int h) {
+        return ((long) g << 32) | h;
+    }
+
+    private boolean hasPending() {
+        for (Bucket bucket : buckets.values()) {
+            if (bucket.unsorted != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ͱȥأ(g-1, h)(g-2, h)
+     */
+    private SortedFile prepare(Bucket bucket, int g, int h) throws IOException {
+        RunSorter sorter = new RunSorter();
+        try (LongReader reader = new LongReader(bucket.unsorted, bucket.unsortedCount)) {
+            while (reader.hasNext()) {
+                sorter.add(reader.next());
+            }
+        }
+        Files.deleteIfExists(bucket.unsorted);
+        long generated = bucket.unsortedCount;
+        bucket.unsorted = null;
+        bucket.unsortedCount = 0;
+
+        SortedFile candidates = sorter.finish();
+        Bucket previous = buckets.get(bucketId(g - 1, h));
+        Bucket earlier = buckets.get(bucketId(g - 2, h));
+        SortedFile result = subtract(candidates,
+                previous == null ? null : previous.sorted, earlier == null ? null : earlier.sorted);
+        candidates.delete();
+        duplicatesRemoved += generated - result.count;
+        bucket.sorted = result;
+        return result;
+    }
+
+    /**
+     * չһȥصͰӽ׷ӵ(g+1, h')Ͱ
+     */
+    private void expand(SortedFile states, int g, int f, int[] board) throws IOException {
+        try (LongReader reader = states.open(); BucketWriters writers = new BucketWriters()) {
+            while (reader.hasNext()) {
+                long key = reader.next();
+                int blank = unpack(key, board);
+                int row = blank / size;
+                int col = blank % size;
+                nodesExpanded++;
+
+                for (int move = 0; move < 4; move++) {
+                    int target = neighbor(row, col, move);
+                    if (target < 0) {
+                        continue;
+                    }
+                    board[blank] = board[target];
+                    board[target] = 0;
+                    PuzzleBoard child = new PuzzleBoard(size, board);
+                    int h = Math.max(predictor.heuristics(child, goal), f - g - 1);
+                    writers.add(g + 1, h, child.getCompressedState());
+                    board[target] = board[blank];
+                    board[blank] = 0;
+                    nodesGenerated++;
+                }
+            }
+        }
+    }
+
+    /**
+     * ոmove()ƶλãʱΪ-1
+     */
+    private int neighbor(int row, int col, int move) {
+        switch (move) {
+            case 0: return row > 0 ? (row - 1) * size + col : -1;
+            case 1: return row < size - 1 ? (row + 1) * size + col : -1;
+            case 2: return col > 0 ? row * size + col - 1 : -1;
+            default: return col < size - 1 ? row * size + col + 1 : -1;
+        }
+    }
+
+    /**
+     * PuzzleBoardѹʽ(ÿ4λһλ)̣ؿոλ
+     */
+    private int unpack(long key, int[] board) {
+        int blank = -1;
+        for (int i = cells - 1; i >= 0; i--) {
+            board[i] = (int) (key & 0xF);
+            if (board[i] == 0) {
+                blank = i;
+            }
+            key >>>= 4;
+        }
+        return blank;
+    }
+
+    /**
+     * Ŀÿһg-1ҵһչ״̬ɽ·
+     */
+    private Node reconstruct(Problem problem, long goalKey, int cost) throws IOException {
+        long[] keys = new long[cost + 1];
+        keys[cost] = goalKey;
+        int[] board = new int[cells];
+        for (int g = cost - 1; g >= 0; g--) {
+            int blank = unpack(keys[g + 1], board);
+            int row = blank / size;
+            int col = blank % size;
+            keys[g] = -1;
+            for (int move = 0; move < 4 && keys[g] == -1; move++) {
+                int target = neighbor(row, col, move);
+                if (target < 0) {
+                    continue;
+                }
+                board[blank] = board[target];
+                board[target] = 0;
+                PuzzleBoard previous = new PuzzleBoard(size, board);
+                for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+                    long id = entry.getKey();
+                    SortedFile sorted = entry.getValue().sorted;
+                    if ((int) (id >>> 32) == g && sorted != null && contains(sorted, previous.getCompressedState())) {
+                        keys[g] = previous.getCompressedState();
+                        break;
+                    }
+                }
+                board[target] = board[blank];
+                board[blank] = 0;
+            }
+            if (keys[g] == -1) {
+                throw new IllegalStateException("A*ع·ʧܣ" + g + "Ҳǰ");
+            }
+        }
+
+        Node node = problem.root(predictor);
+        for (int g = 1; g <= cost; g++) {
+            Node next = null;
+            for (Node child : problem.childNodes(node)) {
+                if (StateKeys.pack(child.getState()) == keys[g]) {
+                    next = child;
+                    break;
+                }
+            }
+            if (next == null) {
+                throw new IllegalStateException("A*ع·ʧܣ" + g + "ǺϷƶ");
+            }
+            node = next;
+        }
+        return node;
+    }
+
+    /**
+     * ļжֲ
+     */
+    private boolean contains(SortedFile file, long key) throws IOException {
+        if (file.count == 0) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        try (FileChannel channel = FileChannel.open(file.path, StandardOpenOption.READ)) {
+            long low = 0;
+            long high = file.count - 1;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, mid * Long.BYTES + buffer.position()) < 0) {
+                        throw new IOException("Ͱļض: " + file.path);
+                    }
+                }
+                long value = buffer.getLong(0);
+                if (value < key) {
+                    low = mid + 1;
+                } else if (value > key) {
+                    high = mid - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    public long getDuplicatesRemoved() {
+        return duplicatesRemoved;
+    }
+
+    // ---------------------------------------------------------------- Ͱļ
+
+    private Path newFile() {
+        return tempDir.resolve("f" + (fileCounter++) + ".bin");
+    }
+
+    /**
+     * չһͰڼ򿪵ĿͰ׷д
+     */
+    private final class BucketWriters implements Closeable {
+        private final Map<Long, LongWriter> writers = new HashMap<>();
+
+        void add(int g, int h, long key) throws IOException {
+            long id = bucketId(g, h);
+            LongWriter writer = writers.get(id);
+            if (writer == null) {
+                Bucket bucket = buckets.computeIfAbsent(id, k -> new Bucket());
+                if (bucket.unsorted == null) {
+                    bucket.unsorted = newFile();
+                }
+                writer = new LongWriter(bucket.unsorted, true);
+                writers.put(id, writer);
+            }
+            writer.write(key);
+            buckets.get(id).unsortedCount++;
+            recordsWritten++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (LongWriter writer : writers.values()) {
+                writer.finish();
+            }
+            writers.clear();
+        }
+    }
+
+    /**
+     * 򼯺ϲsourceвexclude1exclude2Ԫ
+     */
+    private SortedFile subtract(SortedFile source, SortedFile exclude1, SortedFile exclude2) throws IOException {
+        LongWriter writer = new LongWriter(newFile(), false);
+        try (LongReader in = source.open();
+             LongReader ex1 = exclude1 == null ? null : exclude1.open();
+             LongReader ex2 = exclude2 == null ? null : exclude2.open()) {
+            while (in.hasNext()) {
+                long value = in.next();
+                if (!skipTo(ex1, value) && !skipTo(ex2, value)) {
+                    writer.write(value);
+                }
+            }
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        }
+        return writer.finish();
+    }
+
+    private boolean skipTo(LongReader reader, long value) throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        while (reader.hasNext() && reader.peek() < value) {
+            reader.next();
+        }
+        return reader.hasNext() && reader.peek() == value;
+    }
+
+    /**
+     * ·鲢ȥأÿ鲢MAX_FAN_IN
+     */
+    private SortedFile mergeRuns(List<SortedFile> runs) throws IOException {
+        if (runs.isEmpty()) {
+            return new LongWriter(newFile(), false).finish();
+        }
+        while (runs.size() > 1) {
+            List<SortedFile> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                List<SortedFile> group = runs.subList(i, Math.min(runs.size(), i + MAX_FAN_IN));
+                if (group.size() == 1) {
+                    merged.add(group.get(0));
+                    continue;
+                }
+                merged.add(mergeGroup(group));
+                for (SortedFile run : group) {
+                    run.delete();
+                }
+            }
+            runs = merged;
+        }
+        return runs.get(0);
+    }
+
+    private SortedFile mergeGroup(List<SortedFile> group) throws IOException {
+        PriorityQueue<LongReader> heap = new PriorityQueue<>(group.size(),
+                (a, b) -> Long.compare(a.peek(), b.peek()));
+        List<LongReader> readers = new ArrayList<>(group.size());
+        LongWriter writer = new LongWriter(newFile(), false);
+        try {
+            for (SortedFile run : group) {
+                LongReader reader = run.open();
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    heap.add(reader);
+                }
+            }
+            boolean first = true;
+            long last = 0;
+            while (!heap.isEmpty()) {
+                LongReader reader = heap.poll();
+                long value = reader.next();
+                if (first || value != last) {
+                    writer.write(value);
+                    last = value;
+                    first = false;
+                }
+                if (reader.hasNext()) {
+                    heap.add(reader);
+                }
+            }
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        } finally {
+            for (LongReader reader : readers) {
+                reader.close();
+            }
+        }
+        return writer.finish();
+    }
+
+    private void deleteTempDir() {
+        if (tempDir == null) {
+            return;
+        }
+        File[] files = tempDir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        tempDir.toFile().delete();
+        tempDir = null;
+    }
+
+    /**
+     * һظlongļ
+     */
+    private static final class SortedFile {
+        final Path path;
+        final long count;
+
+        SortedFile(Path path, long count) {
+            this.path = path;
+            this.count = count;
+        }
+
+        LongReader open() throws IOException {
+            return new LongReader(path, count);
+        }
+
+        void delete() throws IOException {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * ͨFileChannelֱӻ˳long
+     */
+    private static final class LongReader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        private long remaining;
+        private long head;
+        private boolean hasHead;
+
+        LongReader(Path path, long count) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.remaining = count;
+            buffer.limit(0);
+            advance();
+        }
+
+        private void advance() throws IOException {
+            hasHead = remaining > 0;
+            if (!hasHead) {
+                return;
+            }
+            if (buffer.remaining() < Long.BYTES) {
+                buffer.compact();
+                while (buffer.position() < Long.BYTES) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IOException("Ͱļض");
+                    }
+                }
+                buffer.flip();
+            }
+            head = buffer.getLong();
+            remaining--;
+        }
+
+        boolean hasNext() {
+            return hasHead;
+        }
+
+        long peek() {
+            return head;
+        }
+
+        long next() throws IOException {
+            long value = head;
+            advance();
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * ͨFileChannelֱӻ˳дlongappendΪtrueʱ׷ӵļĩβ
+     */
+    private static final class LongWriter {
+        private final Path path;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        private long count;
+
+        LongWriter(Path path, boolean append) throws IOException {
+            this.path = path;
+            this.channel = append
+                    ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                    : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(long value) throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong(value);
+            count++;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        SortedFile finish() throws IOException {
+            flush();
+            channel.close();
+            return new SortedFile(path, count);
+        }
+
+        void abort() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * ڴ򣬻ʱдһΣʱ鲢ж
+     */
+    private final class RunSorter {
+        private long[] buffer = new long[Math.min(INITIAL_SORT_BUFFER, sortBufferLongs)];
+        private int count;
+        private final List<SortedFile> runs = new ArrayList<>();
+
+        void add(long value) throws IOException {
+            if (count == buffer.length) {
+                if (buffer.length < sortBufferLongs) {
+                    buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length * 2, sortBufferLongs));
+                } else {
+                    spill();
+                }
+            }
+            buffer[count++] = value;
+        }
+
+        private void spill() throws IOException {
+            Arrays.sort(buffer, 0, count);
+            LongWriter writer = new LongWriter(newFile(), false);
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || buffer[i] != buffer[i - 1]) {
+                    writer.write(buffer[i]);
+                }
+            }
+            runs.add(writer.finish());
+            count = 0;
+        }
+
+        SortedFile finish() throws IOException {
+            if (count > 0 || runs.isEmpty()) {
+                spill();
+            }
+            buffer = null;
+            return mergeRuns(runs);
+        }
+    }
+}
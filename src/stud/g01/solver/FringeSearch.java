@@ -0,0 +1,200 @@
+package stud.g01.solver;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ե(Fringe Search)
+ * IDA*һֵһһֵһֵıԵ㱣һִӱԵѣشӸ
+ * nowlater˫ȶУnowͷȡ㣬fֵչӽŵnowͷ(ȵؽſ)
+ * fֵķŽlaternowȡպֵȡlaterСf
+ * ¼ÿ״̬Ľ(g͸)ԼǰĸУҵСgʱֱӴӱժɽ㣬
+ * չ״̬Ҳ´򿪡
+ *  ǰh(n)ɲ
+ */
+public class FringeSearch extends AbstractSearcher {
+    private final Predictor predictor;
+
+    // ״̬
+    private final Map<State, Entry> cache = new HashMap<>();
+    private FringeList now;
+    private FringeList later;
+    private int iterations;
+
+    /**
+     * @param frontier 㸸ӿڣԵʹԼ
+     * @param predictor Ԥ
+     */
+    public FringeSearch(Frontier frontier, Predictor predictor) {
+        super(frontier);
+        this.predictor = predictor;
+    }
+
+    /**
+     * ͬʱ㣻ownerΪnullʾչκα
+     */
+    private static final class Entry {
+        Node node;
+        Entry prev;
+        Entry next;
+        FringeList owner;
+
+        Entry(Node node) {
+            this.node = node;
+        }
+    }
+
+    /**
+     * ʽ˫ժΪO(1)
+     */
+    private static final class FringeList {
+        Entry head;
+        Entry tail;
+        int minF = Integer.MAX_VALUE;   // ĽСf㱻ժֻƫС
+
+        boolean isEmpty() {
+            return head == null;
+        }
+
+        void addFirst(Entry entry) {
+            entry.owner = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head == null) {
+                tail = entry;
+            } else {
+                head.prev = entry;
+            }
+            head = entry;
+            minF = Math.min(minF, entry.node.evaluation());
+        }
+
+        void addLast(Entry entry) {
+            entry.owner = this;
+            entry.next = null;
+            entry.prev = tail;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+            minF = Math.min(minF, entry.node.evaluation());
+        }
+
+        Entry removeFirst() {
+            Entry entry = head;
+            remove(entry);
+            return entry;
+        }
+
+        void remove(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.owner = null;
+        }
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        if (!problem.solvable()) {
+            return null;
+        }
+
+        frontier.clear();
+        explored.clear();
+        cache.clear();
+        nodesExpanded = 0;
+        nodesGenerated = 0;
+        now = new FringeList();
+        later = new FringeList();
+        iterations = 1;
+
+        Node root = problem.root(predictor);
+        Entry rootEntry = new Entry(root);
+        cache.put(root.getState(), rootEntry);
+        now.addLast(rootEntry);
+        int threshold = root.evaluation();
+
+        while (true) {
+            if (now.isEmpty()) {
+                if (later.isEmpty()) {
+                    return null;
+                }
+                // ֵֽȡlaterСflaterΪһֵnow
+                threshold = later.minF;
+                FringeList swap = now;
+                now = later;
+                later = swap;
+                later.minF = Integer.MAX_VALUE;
+                iterations++;
+            }
+
+            Entry entry = now.removeFirst();
+            Node node = entry.node;
+            if (node.evaluation() > threshold) {
+                later.addLast(entry);
+                continue;
+            }
+            if (problem.goal(node.getState())) {
+                return generatePath(node);
+            }
+
+            nodesExpanded++;
+            for (Node child : problem.childNodes(node, predictor)) {
+                nodesGenerated++;
+                Entry known = cache.get(child.getState());
+                if (known == null) {
+                    known = new Entry(child);
+                    cache.put(child.getState(), known);
+                } else {
+                    if (known.node.getPathCost() <= child.getPathCost()) {
+                        continue;
+                    }
+                    // ̵·ժɽ(չ´)
+                    if (known.owner != null) {
+                        known.owner.remove(known);
+                    }
+                    known.node = child;
+                }
+                if (child.evaluation() > threshold) {
+                    later.addLast(known);
+                } else {
+                    now.addFirst(known);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return ֵߵĴһ
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return е״̬
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+}
@@ -1,22 +1,38 @@
 package stud.g01.solver;
 
+import core.problem.Action;
 import core.problem.Problem;
+import core.problem.State;
 import core.solver.algorithm.searcher.AbstractSearcher;
 import core.solver.queue.Frontier;
 import core.solver.queue.Node;
 import core.solver.algorithm.heuristic.Predictor;
+import stud.g01.heuristic.CostBoundedPredictor;
+import stud.g01.heuristic.PatternDatabasePredictor;
 import stud.g01.problem.npuzzle.NPuzzleProblem;
+import stud.g01.problem.npuzzle.PuzzleAction;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.solver.pattern.PatternDatabase;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * ŻIDA*ʵ
- * ʹøЧĵݹԡ·ͼ֦Ż
+ * ʹøЧĵݹԡûͼ֦Ż
+ * Ⱥfֵʽ֦(enablePruning)ͨŽķ֧Ȳ걸Ҳ֤ţĬϹر
+ * ƶ֦Զӽڵ֮ǰظƶ(Ͷ̻)
+ * ѡIDA*_CRģʽֵfֵͰͳƣһεĽڵĿ걶
+ * ҵнĵȷ
+ * ѡĿܱ߱״̬ g + о벻ֵʱֱӵõ⣬״ֵ̬Ϊܱ+1(żԿټ1)
+ * ѡBPMXӽڵ h() -  ߸ڵh h() -  ӽڵhʱͬϴ
+ * ڵf˳ֵʱʣµӽڵ
  */
 public class IdAStar extends AbstractSearcher {
     private final Predictor predictor;
+    private Predictor searchPredictor;  // ʹõԤʵʱÿ½
     private Node goalNode;
     private long searchStartTime;
     private final int TIME_LIMIT_MS = 60000; // 60ʱ
@@ -27,31 +43,75 @@ public class IdAStar extends AbstractSearcher {
     private long totalNodesGenerated;
     private long totalNodesExpanded;
 
-    // ͼ֦
-    private final PathCache pathCache;
+    // ûͼ֦
+    private TranspositionTable transpositionTable;
     private boolean enablePruning;
     private int pruningDepth;
 
+    // ƶ֦Զڻ
+    private boolean enableMovePruning;
+    private MovePruningAutomaton moveAutomaton;
+    // һӽڵʱԶӽڵf½
+    private int movePrunedLowerBound;
+
     // ͳϢ
     private final AtomicLong recursionDepth;
     private final AtomicLong prunedBranches;
+    private long transpositionCuts;
+    private long movePrunedChildren;
+
+    // һηصĽڵf½磬ܼ֦Ӱ죬дû
+    private int lastLowerBound;
+
+    // IDA*_CRgrowthFactor1ʱãͰiͳf = threshold + 1 + iĽڵһͰݸf
+    private double growthFactor;
+    private static final int CR_BUCKETS = 64;
+    private final long[] exceedCounts = new long[CR_BUCKETS];
+    private int overflowMinF;
+    private int iterationThreshold;
+    private int verifyIterations;
+
+    // Ŀܱ߱perimeterDepthΪ0ʱʹ
+    private int perimeterDepth;
+    private PerimeterTable perimeterTable;
+    private long perimeterHits;
+
+    // BPMXֵڸӽڵ֮˫򴫲һʱǰ֦
+    private boolean enableBpmx;
+    private long bpmxCuts;
+
+    private static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
 
     public IdAStar(Frontier frontier, Predictor predictor) {
         super(frontier);
         this.predictor = predictor;
-        this.pathCache = new PathCache(1000); // 1000·
-        this.enablePruning = true;
+        this.transpositionTable = new TranspositionTable(DEFAULT_TABLE_CAPACITY);
+        this.enablePruning = false;
         this.pruningDepth = 5;
+        this.enableMovePruning = true;
         this.recursionDepth = new AtomicLong(0);
         this.prunedBranches = new AtomicLong(0);
 
         System.out.println("ŻIDA*");
-        System.out.println("·С: " + pathCache.getMaxSize());
+        System.out.println("û: " + transpositionTable.getCapacity());
         System.out.println("֦Ż: " + (enablePruning ? " (=" + pruningDepth + ")" : ""));
+        System.out.println("ƶ֦Զ: " + (enableMovePruning ? "" : ""));
     }
 
+    /**
+     * ڼ̶Ԥģʽݿ⣬ע;ͷ
+     */
     @Override
     public Deque<Node> search(Problem problem) {
+        PatternDatabase pinned = PatternDatabasePredictor.pin(predictor);
+        try {
+            return searchPinned(problem);
+        } finally {
+            PatternDatabasePredictor.unpin(pinned);
+        }
+    }
+
+    private Deque<Node> searchPinned(Problem problem) {
         if (!problem.solvable()) {
             System.out.println("޽");
             return null;
@@ -60,9 +120,23 @@ public class IdAStar extends AbstractSearcher {
         // ͳϢ
         resetSearchStatistics();
 
+        // ʵԤÿʹԼı
+        searchPredictor = predictor instanceof CostBoundedPredictor
+                ? ((CostBoundedPredictor) predictor).forSearch(problem.getInitialState(), problem.getGoal())
+                : predictor;
+
         // ȡʽֵĸڵ
-        Node root = problem.root(predictor);
+        Node root = problem.root(searchPredictor);
         currentThreshold = root.getHeuristic();
+        moveAutomaton = enableMovePruning && root.getState() instanceof PuzzleBoard
+                ? MovePruningAutomaton.getDefault() : null;
+        int moveStart = moveAutomaton == null ? 0 : moveAutomaton.start();
+        perimeterTable = perimeterDepth > 0 && problem.getGoal() instanceof PuzzleBoard
+                && StateKeys.canPack(problem.getGoal())
+                ? PerimeterTable.obtain((PuzzleBoard) problem.getGoal(), perimeterDepth) : null;
+        if (perimeterTable != null) {
+            root.setHeuristic(perimeterTable.lowerBound(root.getState(), root.getHeuristic()));
+        }
 
         System.out.println("ʼŻIDA*...");
         System.out.println("ʼֵ(ڵֵ): " + currentThreshold);
@@ -71,20 +145,36 @@ public class IdAStar extends AbstractSearcher {
 
         searchStartTime = System.currentTimeMillis();
 
+        // ǰֵûн⣬Ž۵½
+        int lowerBound = currentThreshold;
+
         // 
         while (currentThreshold < Integer.MAX_VALUE) {
             iterations++;
+            // 蹹Ԥڵʼǰµֵ
+            if (searchPredictor instanceof CostBoundedPredictor) {
+                ((CostBoundedPredictor) searchPredictor).setCostBound(currentThreshold);
+            }
             System.out.printf(" %d - ǰֵ: %d - ", iterations, currentThreshold);
 
-            // ̽·
+            // ̽û
             explored.clear();
+            resetExceedHistogram(currentThreshold);
+            long expandedBefore = nodesExpanded;
 
-            int result = optimizedDepthLimitedSearch(problem, root, currentThreshold, 0);
+            int result = optimizedDepthLimitedSearch(problem, root, currentThreshold, 0, moveStart);
 
             System.out.printf(": %,d, չ: %,d, : %s\n",
                     nodesGenerated, nodesExpanded,
                     result == -1 ? "ҵ" : "һֵ=" + result);
 
+            if (result == -1 && goalNode.getPathCost() > lowerBound) {
+                // ֵмfֵܲţø͵ֵȷ
+                if (verifyOptimal(problem, root, lowerBound) == Integer.MAX_VALUE) {
+                    System.out.println("ʱ60룩ȷǰҵĽ");
+                }
+            }
+
             if (result == -1) {
                 // ҵ
                 long endTime = System.currentTimeMillis();
@@ -100,41 +190,157 @@ public class IdAStar extends AbstractSearcher {
             }
 
             // ֵ
-            currentThreshold = result;
+            lowerBound = result;
+            currentThreshold = isControlledReexpansion()
+                    ? nextControlledThreshold(result, nodesExpanded - expandedBefore) : result;
 
             // 鳬ʱ
             if ((System.currentTimeMillis() - searchStartTime) > TIME_LIMIT_MS) {
                 System.out.println("ʱ60룩ֹͣ");
                 return null;
             }
-
-            // 
-            if (iterations % 10 == 0) {
-                pathCache.cleanup();
-            }
         }
 
         System.out.println("ﵽֵޣֹͣ");
         return null;
     }
 
+    /**
+     * IDA*_CRҵΪCĽC-1ΪֵظнֱҲ˵Ľ
+     * @param lowerBound ֪Ŵ½
+     * @return ȷϺŴۣʱInteger.MAX_VALUE
+     */
+    private int verifyOptimal(Problem problem, Node root, int lowerBound) {
+        int moveStart = moveAutomaton == null ? 0 : moveAutomaton.start();
+        while (goalNode.getPathCost() > lowerBound) {
+            Node best = goalNode;
+            int bound = best.getPathCost() - 1;
+            iterations++;
+            verifyIterations++;
+            explored.clear();
+            resetExceedHistogram(bound);
+            System.out.printf("ȷϵ - ֵ: %d - ", bound);
+            goalNode = null;
+            int result = optimizedDepthLimitedSearch(problem, root, bound, 0, moveStart);
+            System.out.printf(": %,d, չ: %,d, : %s\n", nodesGenerated, nodesExpanded,
+                    result == -1 ? "ҵŽ " + goalNode.getPathCost() : "޸Ž");
+            if (result != -1) {
+                goalNode = best;
+                if ((System.currentTimeMillis() - searchStartTime) > TIME_LIMIT_MS) {
+                    return Integer.MAX_VALUE;
+                }
+                break;
+            }
+        }
+        currentThreshold = goalNode.getPathCost();
+        return currentThreshold;
+    }
+
+    /**
+     * εֵfֲֵѡһֵ
+     * ĽڵһεᱻչۼƵǵﵽչ(growthFactor-1)Ϊֹ
+     * @param minExceed ֵСfֵһֵ
+     */
+    private int nextControlledThreshold(int minExceed, long expanded) {
+        double target = Math.max(1, expanded * (growthFactor - 1));
+        long cumulative = 0;
+        int next = minExceed;
+        for (int i = 0; i < CR_BUCKETS; i++) {
+            if (exceedCounts[i] == 0) {
+                continue;
+            }
+            next = i == CR_BUCKETS - 1 ? overflowMinF : iterationThreshold + 1 + i;
+            cumulative += exceedCounts[i];
+            if (cumulative >= target) {
+                break;
+            }
+        }
+        return Math.max(next, minExceed);
+    }
+
+    private void resetExceedHistogram(int threshold) {
+        iterationThreshold = threshold;
+        Arrays.fill(exceedCounts, 0);
+        overflowMinF = Integer.MAX_VALUE;
+    }
+
+    private void recordExceed(int f) {
+        if (!isControlledReexpansion()) {
+            return;
+        }
+        long offset = (long) f - iterationThreshold - 1;
+        if (offset < CR_BUCKETS - 1) {
+            exceedCounts[(int) offset]++;
+        } else {
+            exceedCounts[CR_BUCKETS - 1]++;
+            overflowMinF = Math.min(overflowMinF, f);
+        }
+    }
+
+    private boolean isControlledReexpansion() {
+        return growthFactor > 1;
+    }
+
     /**
      * Ż
+     * @param moveState nodeʱƶ֦Զ״̬
      * @return -1: ҵ, : һֵ
      */
-    private int optimizedDepthLimitedSearch(Problem problem, Node node, int threshold, int depth) {
+    private int optimizedDepthLimitedSearch(Problem problem, Node node, int threshold, int depth, int moveState) {
         // ݹͳ
         recursionDepth.set(Math.max(recursionDepth.get(), depth));
 
+        int g = node.getPathCost();
+        int h = node.getHeuristic();
+        int perimeterDistance = perimeterTable == null ? -1 : perimeterTable.distance(node.getState());
+        if (perimeterDistance >= 0) {
+            h = Math.max(h, perimeterDistance);
+        } else if (perimeterTable != null) {
+            h = Math.max(h, perimeterTable.outsideBound(node.getState()));
+        }
+
         // 鳬ʱ
         if ((System.currentTimeMillis() - searchStartTime) > TIME_LIMIT_MS) {
+            lastLowerBound = g + h;
             return Integer.MAX_VALUE;
         }
 
-        int f = node.getPathCost() + node.getHeuristic();
+        // û֮ǰõ½ֱֵ
+        // εѾògĴ۵״̬ѱ(·)ֱӼ
+        // Զ״̬ͬʱչķʽͬط
+        boolean packable = StateKeys.canPack(node.getState());
+        long key = packable ? StateKeys.pack(node.getState()) : 0;
+        if (packable) {
+            int slot = transpositionTable.find(key);
+            if (slot >= 0) {
+                h = Math.max(h, transpositionTable.getHBound(slot));
+                if (transpositionTable.getStamp(slot) == iterations && g >= transpositionTable.getG(slot)) {
+                    if (transpositionTable.isOpen(slot)) {
+                        // صǰ·ϵ״̬ǻ
+                        transpositionCuts++;
+                        lastLowerBound = g + h;
+                        return Integer.MAX_VALUE;
+                    }
+                }
+                if (transpositionTable.getStamp(slot) == iterations && g >= transpositionTable.getG(slot)
+                        && transpositionTable.getContext(slot) == moveState) {
+                    transpositionCuts++;
+                    lastLowerBound = g + h;
+                    int backedUp = transpositionTable.getBackedUp(slot);
+                    return backedUp == Integer.MAX_VALUE ? Integer.MAX_VALUE : g + backedUp;
+                }
+            }
+        }
+
+        int f = g + h;
+        lastLowerBound = f;
+        if (enableBpmx) {
+            node.setHeuristic(h);
+        }
 
         // ֵfֵ
         if (f > threshold) {
+            recordExceed(f);
             return f;
         }
 
@@ -144,6 +350,13 @@ public class IdAStar extends AbstractSearcher {
             return -1;
         }
 
+        // ܱ߱ڵ״̬ʣµ·֪ر߻Ŀ
+        if (perimeterDistance >= 0 && g + perimeterDistance <= threshold) {
+            perimeterHits++;
+            goalNode = perimeterTable.completePath(node, problem);
+            return -1;
+        }
+
         // ֦
         if (enablePruning && depth >= pruningDepth) {
             if (shouldPruneBranch(node, depth)) {
@@ -152,26 +365,35 @@ public class IdAStar extends AbstractSearcher {
             }
         }
 
-        // ·
-        PathCache.CacheResult cacheResult = pathCache.checkCache(node.getState(), depth);
-        if (cacheResult != null) {
-            if (cacheResult.foundBetterPath()) {
-                // ҵ·֧
-                return Integer.MAX_VALUE;
-            } else if (cacheResult.hasHeuristic()) {
-                // ʹûʽϢ
-                return cacheResult.getNextThreshold();
-            }
+        if (packable) {
+            transpositionTable.store(key, iterations, g, Integer.MAX_VALUE, h, threshold - g, true, moveState);
         }
 
         nodesExpanded++;
         totalNodesExpanded++;
 
         int minExceed = Integer.MAX_VALUE;
-        boolean hasValidChildren = false;
+        int minLowerBound = Integer.MAX_VALUE;
 
         // ŻԤӽڵ㣬չϣĽڵ
-        Deque<Node> children = getOptimizedChildren(problem, node);
+        Deque<Node> children = getOptimizedChildren(problem, node, moveState, packable);
+        // ԶӽڵҲҪ½磬дû½ƫ
+        minLowerBound = movePrunedLowerBound;
+
+        if (enableBpmx && !children.isEmpty()) {
+            h = propagateBpmx(problem, node, children, h);
+            if (g + h > threshold) {
+                // ӽڵֵ˵ڵѾֵ
+                bpmxCuts++;
+                recordExceed(g + h);
+                lastLowerBound = g + h;
+                if (packable) {
+                    transpositionTable.store(key, iterations, g, h, h, threshold - g, false, moveState);
+                }
+                return g + h;
+            }
+        }
+        boolean bpmxCut = false;
 
         for (Node child : children) {
             nodesGenerated++;
@@ -179,44 +401,103 @@ public class IdAStar extends AbstractSearcher {
 
             // ʽֵδ㣩
             if (child.getHeuristic() == 0) {
-                int heuristic = predictor.heuristics(child.getState(), problem.getGoal());
+                int heuristic = searchPredictor.heuristics(child.getState(), problem.getGoal());
                 child.setHeuristic(heuristic);
             }
 
             // ֦fֵԹ
             if (enablePruning && shouldPruneByFValue(child, threshold)) {
+                minLowerBound = Math.min(minLowerBound, child.evaluation());
                 continue;
             }
 
-            int result = optimizedDepthLimitedSearch(problem, child, threshold, depth + 1);
+            int childMoveState = moveAutomaton == null ? 0 : moveAutomaton.next(moveState, actionIndex(child.getAction()));
+            int result = optimizedDepthLimitedSearch(problem, child, threshold, depth + 1, childMoveState);
 
             if (result == -1) {
                 // ҵ⣬
                 return -1;
             }
 
-            if (result < minExceed) {
-                minExceed = result;
-                hasValidChildren = true;
+            minExceed = Math.min(minExceed, result);
+            minLowerBound = Math.min(minLowerBound, lastLowerBound);
+
+            if (enableBpmx) {
+                // ߵֵֵʱʣµӽڵ㲻
+                h = Math.max(h, child.getHeuristic() - (child.getPathCost() - g));
+                node.setHeuristic(h);
+                if (g + h > threshold) {
+                    bpmxCuts++;
+                    bpmxCut = true;
+                    minExceed = Math.min(minExceed, g + h);
+                    break;
+                }
             }
         }
 
-        // ·
-        if (hasValidChildren && minExceed < Integer.MAX_VALUE) {
-            pathCache.updateCache(node.getState(), depth, minExceed);
+        // ϣ±εشֵͿԿʹõ½磻BPMXжʱûѵӽڵ㲻ܼ
+        lastLowerBound = bpmxCut ? g + h : Math.max(g + h, minLowerBound);
+        if (packable) {
+            transpositionTable.store(key, iterations, g,
+                    minExceed == Integer.MAX_VALUE ? Integer.MAX_VALUE : minExceed - g,
+                    lastLowerBound == Integer.MAX_VALUE ? h : lastLowerBound - g,
+                    threshold - g, false, moveState);
         }
 
         return minExceed;
     }
 
+    /**
+     * BPMXһδȫӽڵh h() -  ߸ڵh h() -  ӽڵh
+     * @return ߺ󸸽ڵh
+     */
+    private int propagateBpmx(Problem problem, Node node, Deque<Node> children, int h) {
+        int g = node.getPathCost();
+        for (Node child : children) {
+            if (child.getHeuristic() == 0) {
+                child.setHeuristic(searchPredictor.heuristics(child.getState(), problem.getGoal()));
+            }
+            h = Math.max(h, child.getHeuristic() - (child.getPathCost() - g));
+        }
+        for (Node child : children) {
+            child.setHeuristic(Math.max(child.getHeuristic(), h - (child.getPathCost() - g)));
+        }
+        node.setHeuristic(h);
+        return h;
+    }
+
     /**
      * ȡŻӽڵбԤ
+     * ƶ֦Զʱӽڵ֮ǰתƱظƶеĶ
+     * needLowerBoundΪʱͬʱ㱻ӽڵf½磬movePrunedLowerBound
      */
-    private Deque<Node> getOptimizedChildren(Problem problem, Node parent) {
-        // ӽڵ
+    private Deque<Node> getOptimizedChildren(Problem problem, Node parent, int moveState, boolean needLowerBound) {
+        movePrunedLowerBound = Integer.MAX_VALUE;
         Deque<Node> children = new ArrayDeque<>();
-        for (Node child : problem.childNodes(parent)) {
-            children.add(child);
+        if (moveAutomaton == null) {
+            // ӽڵ
+            for (Node child : problem.childNodes(parent)) {
+                children.add(child);
+            }
+        } else {
+            State parentState = parent.getState();
+            for (Action action : parentState.actions()) {
+                if (!problem.applicable(parentState, action)) {
+                    continue;
+                }
+                int index = actionIndex(action);
+                if (moveAutomaton.next(moveState, index) < 0) {
+                    movePrunedChildren++;
+                    if (needLowerBound) {
+                        movePrunedLowerBound = Math.min(movePrunedLowerBound,
+                                prunedChildLowerBound(problem, parent, action, index));
+                    }
+                    continue;
+                }
+                State state = parentState.next(action);
+                int pathCost = parent.getPathCost() + problem.stepCost(state, action);
+                children.add(new Node(state, parent, action, pathCost));
+            }
         }
 
         // ʽֵϣǰ
@@ -233,6 +514,26 @@ public class IdAStar extends AbstractSearcher {
         return children;
     }
 
+    /**
+     * ӽڵf½磻صڵ㣬ֱøڵֵ
+     */
+    private int prunedChildLowerBound(Problem problem, Node parent, Action action, int index) {
+        Node grandParent = parent.getParent();
+        if (grandParent != null && parent.getAction() != null && (index ^ 1) == actionIndex(parent.getAction())) {
+            return parent.getPathCost() + problem.stepCost(grandParent.getState(), action) + grandParent.getHeuristic();
+        }
+        State state = parent.getState().next(action);
+        return parent.getPathCost() + problem.stepCost(state, action)
+                + searchPredictor.heuristics(state, problem.getGoal());
+    }
+
+    /**
+     * Զеıţ0 1 2 3ңPDirection˳һ
+     */
+    private static int actionIndex(Action action) {
+        return ((PuzzleAction) action).getDirection().ordinal();
+    }
+
     /**
      * ʽֵ
      */
@@ -279,7 +580,12 @@ public class IdAStar extends AbstractSearcher {
         nodesGenerated = 0;
         goalNode = null;
         explored.clear();
-        pathCache.clear();
+        transpositionTable.clear();
+        transpositionCuts = 0;
+        verifyIterations = 0;
+        movePrunedChildren = 0;
+        perimeterHits = 0;
+        bpmxCuts = 0;
         iterations = 0;
         currentThreshold = 0;
         totalNodesGenerated = 0;
@@ -302,9 +608,24 @@ public class IdAStar extends AbstractSearcher {
         System.out.printf("ݹ: %,d\n", recursionDepth.get());
         System.out.printf("֦֧: %,d\n", prunedBranches.get());
         System.out.printf("ֵ: %d\n", currentThreshold);
+        if (isControlledReexpansion()) {
+            System.out.printf("IDA*_CR: %.1f, ȷϵ: %d\n", growthFactor, verifyIterations);
+        }
 
-        // ͳ
-        System.out.printf("·: %.1f%%\n", pathCache.getHitRate() * 100);
+        // ûͳ
+        System.out.printf("û: %.1f%%, û֦: %,d, : %,d\n",
+                transpositionTable.getHitRate() * 100, transpositionCuts, transpositionTable.getOverwrites());
+        if (perimeterTable != null) {
+            System.out.printf("ܱ߱:  %d, ״̬ %,d, ܱߵĿ: %s\n",
+                    perimeterTable.getDepth(), perimeterTable.size(), perimeterHits > 0 ? "" : "");
+        }
+        if (enableBpmx) {
+            System.out.printf("BPMX֦: %,d\n", bpmxCuts);
+        }
+        if (moveAutomaton != null) {
+            System.out.printf("Զӽڵ: %,d (Զ״̬ %,d)\n",
+                    movePrunedChildren, moveAutomaton.getStateCount());
+        }
 
         // ܷ
         if (totalTime > 0) {
@@ -318,13 +639,46 @@ public class IdAStar extends AbstractSearcher {
     }
 
     /**
-     * Ƿü֦
+     * ǷðȺfֵʽ֦
+     * ּ֦ɲɣúҲ򷵻طŽ⣬ֻں;ɰ汾Ա
      */
     public void setEnablePruning(boolean enablePruning) {
         this.enablePruning = enablePruning;
         System.out.println("֦Ż: " + (enablePruning ? "" : ""));
     }
 
+    /**
+     * Ƿƶ֦Զظƶ
+     */
+    public void setEnableMovePruning(boolean enableMovePruning) {
+        this.enableMovePruning = enableMovePruning;
+        System.out.println("ƶ֦Զ: " + (enableMovePruning ? "" : ""));
+    }
+
+    /**
+     * IDA*_CRĵ1ʱָΪÿȡֵСf
+     */
+    public void setGrowthFactor(double growthFactor) {
+        this.growthFactor = growthFactor;
+        System.out.println("IDA*_CR: " + (isControlledReexpansion() ? " (=" + growthFactor + ")" : ""));
+    }
+
+    /**
+     * Ŀܱ߱ȣ0ʾʹ
+     */
+    public void setPerimeterDepth(int perimeterDepth) {
+        this.perimeterDepth = perimeterDepth;
+        System.out.println("Ŀܱ߱: " + (perimeterDepth > 0 ? " " + perimeterDepth : ""));
+    }
+
+    /**
+     * ǷBPMXһ(ģʽݿȡѡ)ʱЧ
+     */
+    public void setBpmx(boolean enableBpmx) {
+        this.enableBpmx = enableBpmx;
+        System.out.println("BPMX: " + (enableBpmx ? "" : ""));
+    }
+
     /**
      * ü֦
      */
@@ -334,11 +688,11 @@ public class IdAStar extends AbstractSearcher {
     }
 
     /**
-     * ·С
+     * û()
      */
-    public void setPathCacheSize(int size) {
-        pathCache.setMaxSize(size);
-        System.out.println("·СΪ: " + size);
+    public void setTranspositionTableSize(int size) {
+        transpositionTable = new TranspositionTable(size);
+        System.out.println("ûΪ: " + transpositionTable.getCapacity());
     }
 
     /**
@@ -352,130 +706,10 @@ public class IdAStar extends AbstractSearcher {
                 recursionDepth.get(),
                 prunedBranches.get(),
                 currentThreshold,
-                pathCache.getHitRate()
+                transpositionTable.getHitRate()
         );
     }
 
-    /**
-     * ·ڲ
-     */
-    private static class PathCache {
-        private final java.util.LinkedHashMap<Long, CacheEntry> cache;
-        private final int maxSize;
-        private long hits;
-        private long misses;
-
-        public PathCache(int maxSize) {
-            this.maxSize = maxSize;
-            this.cache = new java.util.LinkedHashMap<Long, CacheEntry>(maxSize / 2, 0.75f, true) {
-                @Override
-                protected boolean removeEldestEntry(java.util.Map.Entry<Long, CacheEntry> eldest) {
-                    return size() > maxSize;
-                }
-            };
-            this.hits = 0;
-            this.misses = 0;
-        }
-
-        public CacheResult checkCache(core.problem.State state, int depth) {
-            long key = computeCacheKey(state, depth);
-            CacheEntry entry = cache.get(key);
-
-            if (entry != null) {
-                hits++;
-                return new CacheResult(entry.nextThreshold, entry.betterPathExists);
-            } else {
-                misses++;
-                return null;
-            }
-        }
-
-        public void updateCache(core.problem.State state, int depth, int nextThreshold) {
-            long key = computeCacheKey(state, depth);
-            cache.put(key, new CacheEntry(nextThreshold, false));
-        }
-
-        public void markBetterPath(core.problem.State state, int depth) {
-            long key = computeCacheKey(state, depth);
-            cache.put(key, new CacheEntry(Integer.MAX_VALUE, true));
-        }
-
-        private long computeCacheKey(core.problem.State state, int depth) {
-            // ʹ״̬ϣΪ
-            if (state instanceof stud.g01.problem.npuzzle.PuzzleBoard) {
-                stud.g01.problem.npuzzle.PuzzleBoard board = (stud.g01.problem.npuzzle.PuzzleBoard) state;
-                return board.getCompressedState() ^ ((long) depth << 32);
-            }
-            return state.hashCode() ^ ((long) depth << 32);
-        }
-
-        public void cleanup() {
-            // ƳڵĻĿ
-            long currentTime = System.currentTimeMillis();
-            cache.entrySet().removeIf(entry ->
-                    currentTime - entry.getValue().timestamp > 30000); // 30
-        }
-
-        public void clear() {
-            cache.clear();
-            hits = 0;
-            misses = 0;
-        }
-
-        public int getSize() {
-            return cache.size();
-        }
-
-        public int getMaxSize() {
-            return maxSize;
-        }
-
-        public double getHitRate() {
-            long total = hits + misses;
-            return total > 0 ? (double) hits / total : 0.0;
-        }
-
-        public void setMaxSize(int size) {
-            // ע⣺LinkedHashMapͨremoveEldestEntryʵֵ
-            // ޷̬ımaxSizeҪ´
-            // ʵʵпҪӵĹ
-        }
-
-        private static class CacheEntry {
-            final int nextThreshold;
-            final boolean betterPathExists;
-            final long timestamp;
-
-            CacheEntry(int nextThreshold, boolean betterPathExists) {
-                this.nextThreshold = nextThreshold;
-                this.betterPathExists = betterPathExists;
-                this.timestamp = System.currentTimeMillis();
-            }
-        }
-
-        public static class CacheResult {
-            private final Integer nextThreshold;
-            private final boolean betterPathExists;
-
-            CacheResult(Integer nextThreshold, boolean betterPathExists) {
-                this.nextThreshold = nextThreshold;
-                this.betterPathExists = betterPathExists;
-            }
-
-            public boolean hasHeuristic() {
-                return nextThreshold != null && nextThreshold < Integer.MAX_VALUE;
-            }
-
-            public int getNextThreshold() {
-                return nextThreshold != null ? nextThreshold : Integer.MAX_VALUE;
-            }
-
-            public boolean foundBetterPath() {
-                return betterPathExists;
-            }
-        }
-    }
-
     /**
      * ͳϢ
      */
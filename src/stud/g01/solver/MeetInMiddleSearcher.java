@@ -0,0 +1,341 @@
+package stud.g01.solver;
+
+import core.problem.Action;
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ˫MM(Meet in the Middle)
+ * һOpen/Closedȼ pr(n) = max(f(n), 2g(n))
+ * ÿչprСһࡣɽʱһѾͬһ״̬͵õһѡ·U¼̵ĺѡ
+ *  U <= max(C, fminF, fminB, gminF + gminB + ) ʱ(CΪprСֵΪСߴ)
+ * и̵·UŴۡ
+ *
+ * ʹProblem.predecessorNodesֵǵʼ״̬Ĺֵ
+ * ҪԤĿ״̬(پ)ģʽݿԤǱ׼Ŀʱ˵پ롣
+ * ʼʱ鷴ԤԳʼ״̬ĹֵΪ0˵˴Ŀ꣬ʱܾ
+ * ѡִ߳Уһ̣߳ͨConcurrentHashMap
+ * ȡԷСֵжֹʱҪhһ(Сֵչ)
+ */
+public class MeetInMiddleSearcher extends AbstractSearcher {
+    private final Predictor forwardPredictor;
+    private final Predictor backwardPredictor;
+    private final int TIME_LIMIT_MS = 60000; // 60ʱ
+
+    private boolean parallel;
+    private int minEdgeCost = 1;
+
+    // ״̬
+    private Problem problem;
+    private long searchStartTime;
+    private volatile boolean finished;
+    private volatile boolean timedOut;
+    private final AtomicInteger bestCost = new AtomicInteger();
+    private final Object meetLock = new Object();
+    private Node meetForward;
+    private Node meetBackward;
+
+    public MeetInMiddleSearcher(Frontier frontier, Predictor predictor) {
+        this(frontier, predictor, predictor);
+    }
+
+    /**
+     * @param forwardPredictor  ƵĿ״̬Ĵ
+     * @param backwardPredictor Ƶʼ״̬Ĵ
+     */
+    public MeetInMiddleSearcher(Frontier frontier, Predictor forwardPredictor, Predictor backwardPredictor) {
+        super(frontier);
+        this.forwardPredictor = forwardPredictor;
+        this.backwardPredictor = backwardPredictor;
+    }
+
+    /**
+     * һ״̬ĳһļ¼closed򱻸Сgļ¼滻󣬶еһʧЧ
+     */
+    private static final class Entry {
+        final Node node;
+        final int priority;
+        volatile boolean closed;
+
+        Entry(Node node) {
+            this.node = node;
+            this.priority = Math.max(node.evaluation(), 2 * node.getPathCost());
+        }
+    }
+
+    /**
+     * һOpenprfgһӳɾȶ
+     */
+    private final class Direction {
+        final boolean forward;
+        final Predictor predictor;
+        final State target;
+        final Map<State, Entry> entries = new ConcurrentHashMap<>();
+        final PriorityQueue<Entry> byPriority = new PriorityQueue<>(
+                Comparator.<Entry>comparingInt(e -> e.priority).thenComparing(e -> -e.node.getPathCost()));
+        final PriorityQueue<Entry> byF = new PriorityQueue<>(Comparator.comparingInt(e -> e.node.evaluation()));
+        final PriorityQueue<Entry> byG = new PriorityQueue<>(Comparator.comparingInt(e -> e.node.getPathCost()));
+        Direction other;
+
+        // һСֵ
+        volatile int prMin = Integer.MAX_VALUE;
+        volatile int fMin = Integer.MAX_VALUE;
+        volatile int gMin = Integer.MAX_VALUE;
+
+        long expanded;
+        long generated;
+
+        Direction(boolean forward, Predictor predictor, State target) {
+            this.forward = forward;
+            this.predictor = predictor;
+            this.target = target;
+        }
+
+        /**
+         * OpenȵǼٲһࣺͬʱͬһ״̬ʱһܿԷ
+         */
+        void add(Node node) {
+            Entry entry = new Entry(node);
+            entries.put(node.getState(), entry);
+            byPriority.offer(entry);
+            byF.offer(entry);
+            byG.offer(entry);
+
+            Entry met = other.entries.get(node.getState());
+            if (met != null) {
+                if (forward) {
+                    updateBest(node, met.node);
+                } else {
+                    updateBest(met.node, node);
+                }
+            }
+        }
+
+        void expandOne() {
+            Entry entry = head(byPriority);
+            byPriority.poll();
+            entry.closed = true;
+            expanded++;
+
+            List<Node> successors = forward
+                    ? problem.childNodes(entry.node) : problem.predecessorNodes(entry.node);
+            for (Node child : successors) {
+                generated++;
+                Entry known = entries.get(child.getState());
+                if (known != null && known.node.getPathCost() <= child.getPathCost()) {
+                    continue;
+                }
+                child.setHeuristic(predictor.heuristics(child.getState(), target));
+                add(child);
+            }
+        }
+
+        /**
+         * ͷʧЧСֵ
+         */
+        void publish() {
+            Entry p = head(byPriority);
+            Entry f = head(byF);
+            Entry g = head(byG);
+            prMin = p == null ? Integer.MAX_VALUE : p.priority;
+            fMin = f == null ? Integer.MAX_VALUE : f.node.evaluation();
+            gMin = g == null ? Integer.MAX_VALUE : g.node.getPathCost();
+        }
+
+        private Entry head(PriorityQueue<Entry> queue) {
+            Entry entry;
+            while ((entry = queue.peek()) != null
+                    && (entry.closed || entries.get(entry.node.getState()) != entry)) {
+                queue.poll();
+            }
+            return entry;
+        }
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        if (!problem.solvable()) {
+            System.out.println("޽");
+            return null;
+        }
+        if (!problem.reversible()) {
+            System.out.println("ⲻ棬ʹ˫");
+            return null;
+        }
+        State initial = problem.getInitialState();
+        if (!problem.goal(initial) && backwardPredictor.heuristics(initial, initial) != 0) {
+            // ĹֵΪ0ֵʵʹƵǵ̶Ŀľ룬ɲ
+            System.out.println("Ԥûаʼ״ֵ̬ʹ˫");
+            return null;
+        }
+
+        this.problem = problem;
+        nodesExpanded = 0;
+        nodesGenerated = 0;
+        explored.clear();
+        bestCost.set(Integer.MAX_VALUE);
+        meetForward = null;
+        meetBackward = null;
+        finished = false;
+        timedOut = false;
+
+        Direction forward = new Direction(true, forwardPredictor, problem.getGoal());
+        Direction backward = new Direction(false, backwardPredictor, problem.getInitialState());
+        forward.other = backward;
+        backward.other = forward;
+
+        Node start = problem.root(forwardPredictor);
+        Node goal = new Node(problem.getGoal(), null, null, 0);
+        goal.setHeuristic(backwardPredictor.heuristics(problem.getGoal(), problem.getInitialState()));
+        forward.add(start);
+        backward.add(goal);
+        forward.publish();
+        backward.publish();
+
+        System.out.println("ʼMM˫" + (parallel ? "(߳)" : "") + "...");
+        searchStartTime = System.currentTimeMillis();
+
+        if (parallel) {
+            Thread backwardThread = new Thread(() -> runDirection(backward, forward), "mm-backward");
+            backwardThread.start();
+            runDirection(forward, backward);
+            try {
+                backwardThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        } else {
+            while (!canTerminate(forward, backward)) {
+                if (isTimeout()) {
+                    break;
+                }
+                Direction side = forward.prMin <= backward.prMin ? forward : backward;
+                side.expandOne();
+                side.publish();
+            }
+        }
+
+        nodesExpanded = (int) Math.min(Integer.MAX_VALUE, forward.expanded + backward.expanded);
+        nodesGenerated = (int) Math.min(Integer.MAX_VALUE, forward.generated + backward.generated);
+        double totalTime = (System.currentTimeMillis() - searchStartTime) / 1000.0;
+
+        if (timedOut) {
+            System.out.println("ʱ60룩ֹͣ");
+            return null;
+        }
+        if (bestCost.get() == Integer.MAX_VALUE) {
+            System.out.println("޽");
+            return null;
+        }
+
+        System.out.println("\n=== MM ˫ͳ ===");
+        System.out.printf("·: %d\n", bestCost.get());
+        System.out.printf("ʱ: %.3f \n", totalTime);
+        System.out.printf("չ: %,d, չ: %,d\n", forward.expanded, backward.expanded);
+        System.out.printf("ɽڵ: %,d\n", nodesGenerated);
+        return buildPath();
+    }
+
+    /**
+     * ߳ģʽһѭֹʹöԷСֵ
+     */
+    private void runDirection(Direction self, Direction other) {
+        while (!finished) {
+            if (isTimeout() || canTerminate(self, other)) {
+                finished = true;
+                return;
+            }
+            self.expandOne();
+            self.publish();
+        }
+    }
+
+    /**
+     * U <= max(C, fminF, fminB, gminF + gminB + )ʱûи̵·
+     * һOpenΪʱҲֹͣʱUǴ(Ϊ޽)
+     */
+    private boolean canTerminate(Direction a, Direction b) {
+        int best = bestCost.get();
+        if (a.prMin == Integer.MAX_VALUE || b.prMin == Integer.MAX_VALUE) {
+            return true;
+        }
+        long bound = Math.min(a.prMin, b.prMin);
+        bound = Math.max(bound, Math.max(a.fMin, b.fMin));
+        bound = Math.max(bound, (long) a.gMin + b.gMin + minEdgeCost);
+        return best <= bound;
+    }
+
+    private boolean isTimeout() {
+        if ((System.currentTimeMillis() - searchStartTime) > TIME_LIMIT_MS) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+
+    private void updateBest(Node forwardNode, Node backwardNode) {
+        int cost = forwardNode.getPathCost() + backwardNode.getPathCost();
+        synchronized (meetLock) {
+            if (cost < bestCost.get()) {
+                meetForward = forwardNode;
+                meetBackward = backwardNode;
+                bestCost.set(cost);
+            }
+        }
+    }
+
+    /**
+     * ·ϷдصĿĸ״̬ÿһҳӦ
+     */
+    private Deque<Node> buildPath() {
+        Node current;
+        Node backwardNode;
+        synchronized (meetLock) {
+            current = meetForward;
+            backwardNode = meetBackward.getParent();
+        }
+        for (; backwardNode != null; backwardNode = backwardNode.getParent()) {
+            State from = current.getState();
+            State to = backwardNode.getState();
+            Node next = null;
+            for (Action action : from.actions()) {
+                if (problem.applicable(from, action) && from.next(action).equals(to)) {
+                    next = new Node(to, current, action, current.getPathCost() + problem.stepCost(to, action));
+                    break;
+                }
+            }
+            if (next == null) {
+                throw new IllegalStateException("·޷תΪ: " + from + " -> " + to);
+            }
+            current = next;
+        }
+        return generatePath(current);
+    }
+
+    /**
+     * Ƿ̷ֱִ߳
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+        System.out.println("MM˫: " + (parallel ? "߳" : "߳"));
+    }
+
+    /**
+     * СߴۦţֹȷʱΪ0ǰȫ
+     */
+    public void setMinEdgeCost(int minEdgeCost) {
+        this.minEdgeCost = minEdgeCost;
+    }
+}
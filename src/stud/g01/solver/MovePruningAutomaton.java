@@ -0,0 +1,307 @@
+package stud.g01.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * ظƶм֦Զ
+ * ߰Ⱥֵöٿոƶ(0 1 2 3)
+ * ޴ϱȽеЧöٵЧͬ
+ * Ŀո·ӾΰڵǰеӾ(˷ǵǰпߵĵطҲ)
+ * ǰоظС
+ * ظбAho-CorasickԶõ[״̬][]תƱתƵ-1ʾһظС
+ * (Ϻ)ǳΪ2ظУĻҲᱻ
+ */
+public class MovePruningAutomaton {
+    public static final int ACTIONS = 4;
+
+    private static final int[] DELTA_ROW = {-1, 1, 0, 0};
+    private static final int[] DELTA_COL = {0, 0, -1, 1};
+
+    public static final int DEFAULT_MAX_LENGTH = 10;
+
+    private static volatile MovePruningAutomaton defaultAutomaton;
+
+    private final int[][] transitions;
+    private final int forbiddenCount;
+    private final int maxLength;
+
+    private MovePruningAutomaton(int[][] transitions, int forbiddenCount, int maxLength) {
+        this.transitions = transitions;
+        this.forbiddenCount = forbiddenCount;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * ĬϳȹĹԶ
+     */
+    public static MovePruningAutomaton getDefault() {
+        MovePruningAutomaton automaton = defaultAutomaton;
+        if (automaton == null) {
+            synchronized (MovePruningAutomaton.class) {
+                automaton = defaultAutomaton;
+                if (automaton == null) {
+                    automaton = build(DEFAULT_MAX_LENGTH);
+                    defaultAutomaton = automaton;
+                }
+            }
+        }
+        return automaton;
+    }
+
+    /**
+     * öٳȲmaxLengthƶвԶ
+     */
+    public static MovePruningAutomaton build(int maxLength) {
+        long startTime = System.currentTimeMillis();
+        List<int[]> forbidden = findDuplicateSequences(maxLength);
+        int[][] transitions = compile(forbidden);
+        MovePruningAutomaton automaton = new MovePruningAutomaton(transitions, forbidden.size(), maxLength);
+        System.out.printf("ƶ֦Զ: 󳤶 %d, ظ %d, ״̬ %d, ʱ %dms\n",
+                maxLength, forbidden.size(), transitions.length, System.currentTimeMillis() - startTime);
+        return automaton;
+    }
+
+    public int start() {
+        return 0;
+    }
+
+    /**
+     * @return һԶ״̬-1ʾһظУӦ
+     */
+    public int next(int state, int action) {
+        return transitions[state][action];
+    }
+
+    public int getStateCount() {
+        return transitions.length;
+    }
+
+    public int getForbiddenCount() {
+        return forbiddenCount;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * öٲظеƶУ·ֵظ
+     */
+    private static List<int[]> findDuplicateSequences(int maxLength) {
+        VirtualBoard board = new VirtualBoard(maxLength);
+        Set<String> forbiddenKeys = new HashSet<>();
+        List<int[]> forbidden = new ArrayList<>();
+        // Ч -> öٵͬЧеӾ
+        Map<String, List<int[]>> witnesses = new HashMap<>();
+
+        int[] empty = new int[0];
+        board.apply(empty);
+        witnesses.computeIfAbsent(board.effectKey(), k -> new ArrayList<>()).add(board.bounds());
+
+        Queue<int[]> queue = new ArrayDeque<>();
+        queue.add(empty);
+        while (!queue.isEmpty()) {
+            int[] prefix = queue.poll();
+            for (int action = 0; action < ACTIONS; action++) {
+                int[] sequence = Arrays.copyOf(prefix, prefix.length + 1);
+                sequence[prefix.length] = action;
+                if (hasForbiddenSuffix(sequence, forbiddenKeys)) {
+                    continue;
+                }
+
+                board.apply(sequence);
+                int[] bounds = board.bounds();
+                List<int[]> sameEffect = witnesses.computeIfAbsent(board.effectKey(), k -> new ArrayList<>());
+                boolean duplicate = false;
+                for (int[] witness : sameEffect) {
+                    if (contains(bounds, witness)) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+
+                if (duplicate) {
+                    forbiddenKeys.add(Arrays.toString(sequence));
+                    forbidden.add(sequence);
+                } else {
+                    sameEffect.add(bounds);
+                    if (sequence.length < maxLength) {
+                        queue.add(sequence);
+                    }
+                }
+            }
+        }
+        return forbidden;
+    }
+
+    private static boolean hasForbiddenSuffix(int[] sequence, Set<String> forbiddenKeys) {
+        for (int from = sequence.length - 2; from >= 0; from--) {
+            if (forbiddenKeys.contains(Arrays.toString(Arrays.copyOfRange(sequence, from, sequence.length)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * outerǷinnerΪ{minRow, maxRow, minCol, maxCol}
+     */
+    private static boolean contains(int[] outer, int[] inner) {
+        return outer[0] <= inner[0] && inner[1] <= outer[1] && outer[2] <= inner[2] && inner[3] <= outer[3];
+    }
+
+    /**
+     * ظбAho-CorasickתƱƥ䵽һظе״̬ٳڱ
+     */
+    private static int[][] compile(List<int[]> forbidden) {
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(newNode());
+        terminal.add(false);
+
+        for (int[] sequence : forbidden) {
+            int state = 0;
+            for (int action : sequence) {
+                if (trie.get(state)[action] < 0) {
+                    trie.get(state)[action] = trie.size();
+                    trie.add(newNode());
+                    terminal.add(false);
+                }
+                state = trie.get(state)[action];
+            }
+            terminal.set(state, true);
+        }
+
+        // Ȳȫʧת
+        int[] failure = new int[trie.size()];
+        int[][] transitions = new int[trie.size()][ACTIONS];
+        boolean[] dead = new boolean[trie.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int action = 0; action < ACTIONS; action++) {
+            int child = trie.get(0)[action];
+            if (child < 0) {
+                transitions[0][action] = 0;
+            } else {
+                transitions[0][action] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            dead[state] = terminal.get(state) || dead[failure[state]];
+            for (int action = 0; action < ACTIONS; action++) {
+                int child = trie.get(state)[action];
+                if (child < 0) {
+                    transitions[state][action] = transitions[failure[state]][action];
+                } else {
+                    transitions[state][action] = child;
+                    failure[child] = transitions[failure[state]][action];
+                    queue.add(child);
+                }
+            }
+        }
+
+        // ȥ״̬±
+        int[] renumber = new int[trie.size()];
+        int live = 0;
+        for (int state = 0; state < trie.size(); state++) {
+            renumber[state] = dead[state] ? -1 : live++;
+        }
+        int[][] compact = new int[live][ACTIONS];
+        for (int state = 0; state < trie.size(); state++) {
+            if (!dead[state]) {
+                for (int action = 0; action < ACTIONS; action++) {
+                    compact[renumber[state]][action] = renumber[transitions[state][action]];
+                }
+            }
+        }
+        return compact;
+    }
+
+    private static int[] newNode() {
+        int[] node = new int[ACTIONS];
+        Arrays.fill(node, -1);
+        return node;
+    }
+
+    /**
+     * ԿոʼλΪĵ̣㹻κβ󳤶ȵж߲߽
+     */
+    private static final class VirtualBoard {
+        private final int radius;
+        private final int width;
+        private final int[] labels;
+        private final List<Integer> touched = new ArrayList<>();
+        private int blank;
+        private int minRow, maxRow, minCol, maxCol;
+
+        VirtualBoard(int radius) {
+            this.radius = radius;
+            this.width = 2 * radius + 1;
+            this.labels = new int[width * width];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = i;
+            }
+        }
+
+        /**
+         * ӳʼִУ¼ƶĸӺͿո·Ӿ
+         */
+        void apply(int[] sequence) {
+            for (int cell : touched) {
+                labels[cell] = cell;
+            }
+            touched.clear();
+
+            int row = 0;
+            int col = 0;
+            blank = cellOf(row, col);
+            touched.add(blank);
+            minRow = maxRow = minCol = maxCol = 0;
+            for (int action : sequence) {
+                row += DELTA_ROW[action];
+                col += DELTA_COL[action];
+                int target = cellOf(row, col);
+                labels[blank] = labels[target];
+                labels[target] = -1;
+                blank = target;
+                touched.add(target);
+                minRow = Math.min(minRow, row);
+                maxRow = Math.max(maxRow, row);
+                minCol = Math.min(minCol, col);
+                maxCol = Math.max(maxCol, col);
+            }
+        }
+
+        /**
+         * еЧոλúλñ仯ĸ
+         */
+        String effectKey() {
+            int[] cells = touched.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+            StringBuilder key = new StringBuilder().append(blank);
+            for (int cell : cells) {
+                if (labels[cell] != cell && cell != blank) {
+                    key.append(',').append(cell).append(':').append(labels[cell]);
+                }
+            }
+            return key.toString();
+        }
+
+        int[] bounds() {
+            return new int[]{minRow, maxRow, minCol, maxCol};
+        }
+
+        private int cellOf(int row, int col) {
+            return (row + radius) * width + (col + radius);
+        }
+    }
+}
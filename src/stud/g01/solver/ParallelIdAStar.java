@@ -0,0 +1,300 @@
+package stud.g01.solver;
+
+import core.problem.Action;
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+import stud.g01.heuristic.CostBoundedPredictor;
+import stud.g01.heuristic.PatternDatabasePredictor;
+import stud.g01.problem.npuzzle.PuzzleAction;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.solver.pattern.PatternDatabase;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fork/JoinĲIDA*
+ * ÿεǳ񣬽ForkJoinPoolִУ
+ * ǳsplitDepthĽڵǲ֣Ľڵڱ̵߳п(˵п߳ȡ)
+ * ʣfԤ㹻ʱ֣͵صݹ顣
+ * ֵСfԭӱϲĳ߳ڵǰֵҵĿȫ˳
+ * ֵŴ۵½磬˱εҵκνⶼŽ⡣
+ *
+ * ʹû(̰߳ȫ)ƶ֦ԶȥظƶС
+ */
+public class ParallelIdAStar extends AbstractSearcher {
+    private final Predictor predictor;
+    private final int parallelism;
+    private final int TIME_LIMIT_MS = 60000; // 60ʱ
+
+    // ֲ
+    private int splitDepth;
+    private static final int MIN_SPLIT_BUDGET = 6;   // ʣfԤС͵
+    private static final int SURPLUS_LIMIT = 2;      // ̶߳жʱ
+
+    // ÿ/״̬
+    private Problem problem;
+    private Predictor searchPredictor;  // ʹõԤʵʱÿ½
+    private MovePruningAutomaton moveAutomaton;
+    private volatile int threshold;
+    private volatile boolean timedOut;
+    private long searchStartTime;
+    private final AtomicInteger nextThreshold = new AtomicInteger();
+    private final AtomicReference<Node> goalNode = new AtomicReference<>();
+
+    // ͳ
+    private final LongAdder expanded = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder forkedTasks = new LongAdder();
+    private int iterations;
+
+    public ParallelIdAStar(Frontier frontier, Predictor predictor) {
+        this(frontier, predictor, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelIdAStar(Frontier frontier, Predictor predictor, int parallelism) {
+        super(frontier);
+        this.predictor = predictor;
+        this.parallelism = Math.max(1, parallelism);
+        this.splitDepth = 4;
+
+        System.out.println("IDA*");
+        System.out.println("߳: " + this.parallelism);
+    }
+
+    /**
+     * ڼ̶Ԥģʽݿ⣬ע;ͷ
+     */
+    @Override
+    public Deque<Node> search(Problem problem) {
+        PatternDatabase pinned = PatternDatabasePredictor.pin(predictor);
+        try {
+            return searchPinned(problem);
+        } finally {
+            PatternDatabasePredictor.unpin(pinned);
+        }
+    }
+
+    private Deque<Node> searchPinned(Problem problem) {
+        if (!problem.solvable()) {
+            System.out.println("޽");
+            return null;
+        }
+
+        this.problem = problem;
+        nodesExpanded = 0;
+        nodesGenerated = 0;
+        explored.clear();
+        expanded.reset();
+        generated.reset();
+        forkedTasks.reset();
+        goalNode.set(null);
+        timedOut = false;
+        iterations = 0;
+
+        searchPredictor = predictor instanceof CostBoundedPredictor
+                ? ((CostBoundedPredictor) predictor).forSearch(problem.getInitialState(), problem.getGoal())
+                : predictor;
+        Node root = problem.root(searchPredictor);
+        moveAutomaton = root.getState() instanceof PuzzleBoard ? MovePruningAutomaton.getDefault() : null;
+        int moveStart = moveAutomaton == null ? 0 : moveAutomaton.start();
+        threshold = root.getHeuristic();
+
+        System.out.println("ʼIDA*...");
+        System.out.println("ʼֵ(ڵֵ): " + threshold);
+
+        searchStartTime = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (true) {
+                iterations++;
+                nextThreshold.set(Integer.MAX_VALUE);
+                // 蹹Ԥڵʼǰµֵиֻ߳
+                if (searchPredictor instanceof CostBoundedPredictor) {
+                    ((CostBoundedPredictor) searchPredictor).setCostBound(threshold);
+                }
+                System.out.printf(" %d - ǰֵ: %d - ", iterations, threshold);
+
+                pool.invoke(new SubtreeTask(root, 0, moveStart));
+
+                Node goal = goalNode.get();
+                System.out.printf(": %,d, չ: %,d, : %,d, : %s\n",
+                        generated.sum(), expanded.sum(), forkedTasks.sum(),
+                        goal != null ? "ҵ" : "һֵ=" + nextThreshold.get());
+
+                if (goal != null) {
+                    double totalTime = (System.currentTimeMillis() - searchStartTime) / 1000.0;
+                    updateCounters();
+                    printSearchStatistics(goal, totalTime);
+                    return generatePath(goal);
+                }
+                if (timedOut) {
+                    System.out.println("ʱ60룩ֹͣ");
+                    updateCounters();
+                    return null;
+                }
+                if (nextThreshold.get() == Integer.MAX_VALUE) {
+                    System.out.println("޽");
+                    updateCounters();
+                    return null;
+                }
+                threshold = nextThreshold.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * ĳڵΪ
+     */
+    private final class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Node node;
+        private final int depth;
+        private final int moveState;
+
+        SubtreeTask(Node node, int depth, int moveState) {
+            this.node = node;
+            this.depth = depth;
+            this.moveState = moveState;
+        }
+
+        @Override
+        protected void compute() {
+            depthLimitedSearch(node, depth, moveState);
+        }
+    }
+
+    /**
+     * ڵǰֲֵԾ͵صݹ黹ǲ
+     */
+    private void depthLimitedSearch(Node node, int depth, int moveState) {
+        if (goalNode.get() != null || timedOut) {
+            return;
+        }
+        if ((System.currentTimeMillis() - searchStartTime) > TIME_LIMIT_MS) {
+            timedOut = true;
+            return;
+        }
+
+        int bound = threshold;
+        int f = node.evaluation();
+        if (f > bound) {
+            // غϲֵСf
+            nextThreshold.accumulateAndGet(f, Math::min);
+            return;
+        }
+        if (problem.goal(node.getState())) {
+            goalNode.compareAndSet(null, node);
+            return;
+        }
+
+        expanded.increment();
+        List<Node> children = new ArrayList<>(4);
+        List<Integer> childStates = new ArrayList<>(4);
+        generateChildren(node, moveState, children, childStates);
+        generated.add(children.size());
+
+        boolean split = depth < splitDepth
+                || (bound - f >= MIN_SPLIT_BUDGET && ForkJoinTask.getSurplusQueuedTaskCount() < SURPLUS_LIMIT);
+        if (split && children.size() > 1) {
+            List<SubtreeTask> tasks = new ArrayList<>(children.size());
+            for (int i = 0; i < children.size(); i++) {
+                tasks.add(new SubtreeTask(children.get(i), depth + 1, childStates.get(i)));
+            }
+            forkedTasks.add(tasks.size());
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            for (int i = 0; i < children.size(); i++) {
+                depthLimitedSearch(children.get(i), depth + 1, childStates.get(i));
+                if (goalNode.get() != null) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * ӽڵ㲢ֵֵУ
+     * ƶ֦ԶʱظƶеĶصڵĶ
+     */
+    private void generateChildren(Node parent, int moveState, List<Node> children, List<Integer> childStates) {
+        State parentState = parent.getState();
+        Node grandParent = parent.getParent();
+        for (Action action : parentState.actions()) {
+            if (!problem.applicable(parentState, action)) {
+                continue;
+            }
+            int childState = 0;
+            if (moveAutomaton != null) {
+                childState = moveAutomaton.next(moveState, ((PuzzleAction) action).getDirection().ordinal());
+                if (childState < 0) {
+                    continue;
+                }
+            }
+            State state = parentState.next(action);
+            if (moveAutomaton == null && grandParent != null && state.equals(grandParent.getState())) {
+                continue;
+            }
+            int pathCost = parent.getPathCost() + problem.stepCost(state, action);
+            Node child = new Node(state, parent, action, pathCost);
+            child.setHeuristic(searchPredictor.heuristics(state, problem.getGoal()));
+
+            // 
+            int i = children.size();
+            while (i > 0 && children.get(i - 1).getHeuristic() > child.getHeuristic()) {
+                i--;
+            }
+            children.add(i, child);
+            childStates.add(i, childState);
+        }
+    }
+
+    private void updateCounters() {
+        nodesExpanded = (int) Math.min(Integer.MAX_VALUE, expanded.sum());
+        nodesGenerated = (int) Math.min(Integer.MAX_VALUE, generated.sum());
+    }
+
+    private void printSearchStatistics(Node goal, double totalTime) {
+        System.out.println("\n=== IDA* ͳ ===");
+        System.out.printf("·: %d\n", goal.getPathCost());
+        System.out.printf("ʱ: %.3f \n", totalTime);
+        System.out.printf(": %d\n", iterations);
+        System.out.printf("߳: %d\n", parallelism);
+        System.out.printf("ɽڵ: %,d\n", generated.sum());
+        System.out.printf("չڵ: %,d\n", expanded.sum());
+        System.out.printf("ֳ: %,d\n", forkedTasks.sum());
+        if (totalTime > 0) {
+            System.out.printf("ڵչ: %.1f ڵ/\n", expanded.sum() / totalTime);
+        }
+    }
+
+    /**
+     * ǲֵ
+     */
+    public void setSplitDepth(int splitDepth) {
+        this.splitDepth = splitDepth;
+        System.out.println("Ϊ: " + splitDepth);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+}
@@ -0,0 +1,177 @@
+package stud.g01.solver;
+
+import core.problem.Action;
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+import stud.g01.heuristic.DeltaPredictor;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ǿĲչA*(EPEA*)
+ * ÿFrontierбһֵF(ʼΪf)ȡʱֻ f ǡõF ӽ㣬
+ * ӽ f СֵΪµFѽŻFrontierûиfʱرա
+ * ӽfѡõԤʵDeltaPredictorʱ f(c) = f(n) +  + h
+ * ɣԤ״̬hȻٷŽ㡣
+ * һչʱӽfݲɵӽһ£
+ * Żغȡʱֱȡã״̬Ԥ(ģʽݿûЦhԤÿӽֻһh)
+ *  f Ž۵ӽԶFrontier
+ *  ǰh(n)һµģFrontierʹFULL
+ */
+public class PartialExpansionAStar extends AbstractSearcher {
+    private final Predictor predictor;
+    private final DeltaPredictor deltaPredictor;
+
+    // ״̬
+    private final Map<State, Integer> bestG = new HashMap<>();
+    private final Map<State, Deferred> deferred = new HashMap<>();   // ŻFrontierĽʵhδɵӽ
+    private long heuristicEvaluations;
+    private long reinsertions;
+    private int peakFrontier;
+
+    public PartialExpansionAStar(Frontier frontier, Predictor predictor) {
+        super(frontier);
+        this.predictor = predictor;
+        this.deltaPredictor = predictor instanceof DeltaPredictor ? (DeltaPredictor) predictor : null;
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        if (!problem.solvable()) {
+            return null;
+        }
+
+        frontier.clear();
+        explored.clear();
+        bestG.clear();
+        deferred.clear();
+        nodesExpanded = 0;
+        nodesGenerated = 0;
+        heuristicEvaluations = 1;
+        reinsertions = 0;
+        peakFrontier = 0;
+
+        State goal = problem.getGoal();
+        Node root = problem.root(predictor);
+        bestG.put(root.getState(), 0);
+        frontier.offer(root);
+
+        while (!frontier.isEmpty()) {
+            peakFrontier = Math.max(peakFrontier, frontier.size());
+            Node node = frontier.poll();
+            State state = node.getState();
+            if (node.getPathCost() > bestG.get(state)) {
+                continue;   // иСgĽ
+            }
+            if (problem.goal(state)) {
+                return generatePath(node);
+            }
+
+            // һȡʱFfŻعĽʵhδɵӽ
+            Deferred stored = deferred.remove(state);
+            int h = stored == null ? node.getHeuristic() : stored.h;
+            int target = node.evaluation();
+            List<Node> children = stored == null ? childNodes(problem, node, h) : stored.children;
+            List<Node> remaining = new ArrayList<>();
+
+            nodesExpanded++;
+            for (Node child : children) {
+                int childF = child.evaluation();
+                if (childF > target) {
+                    remaining.add(child);
+                    continue;
+                }
+                // fСFֻڵһչhһʱ֣ͬ
+
+                State childState = child.getState();
+                Integer known = bestG.get(childState);
+                if (known != null && known <= child.getPathCost()) {
+                    continue;
+                }
+                nodesGenerated++;
+                bestG.put(childState, child.getPathCost());
+                deferred.remove(childState);
+                frontier.offer(child);
+            }
+
+            if (!remaining.isEmpty()) {
+                // иfӽûɣСfŻ
+                int next = Integer.MAX_VALUE;
+                for (Node child : remaining) {
+                    next = Math.min(next, child.evaluation());
+                }
+                deferred.put(state, new Deferred(h, remaining));
+                frontier.offer(node.setHeuristic(next - node.getPathCost()));
+                reinsertions++;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * һչʱӽghͳһproblem.stepCost()
+     */
+    private List<Node> childNodes(Problem problem, Node node, int h) {
+        State state = node.getState();
+        State goal = problem.getGoal();
+        List<Node> children = new ArrayList<>(4);
+        for (Action action : state.actions()) {
+            if (!problem.applicable(state, action)) {
+                continue;
+            }
+            State childState = state.next(action);
+            int childH;
+            if (deltaPredictor != null) {
+                childH = h + deltaPredictor.delta(state, action, goal);
+            } else {
+                childH = predictor.heuristics(childState, goal);
+                heuristicEvaluations++;
+            }
+            int childG = node.getPathCost() + problem.stepCost(childState, action);
+            children.add(new Node(childState, node, action, childG, childH));
+        }
+        return children;
+    }
+
+    /**
+     * ŻFrontierĽ㣺ʵhԼfڵǰFûɵӽ
+     */
+    private static final class Deferred {
+        final int h;
+        final List<Node> children;
+
+        Deferred(int h, List<Node> children) {
+            this.h = h;
+            this.children = children;
+        }
+    }
+
+    /**
+     * @return ԤhĴʹDeltaPredictorʱֻиһ
+     */
+    public long getHeuristicEvaluations() {
+        return heuristicEvaluations;
+    }
+
+    /**
+     * @return ѲչĽŻFrontierĴ
+     */
+    public long getReinsertions() {
+        return reinsertions;
+    }
+
+    /**
+     * @return Frontier
+     */
+    public int getPeakFrontier() {
+        return peakFrontier;
+    }
+}
@@ -0,0 +1,73 @@
+package stud.g01.solver;
+
+import core.problem.Problem;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+import stud.g01.heuristic.PerimeterPredictor;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.util.Deque;
+
+/**
+ * ʹĿܱ߱A*
+ * ֵPerimeterPredictorܱ߱ڵ״̬ȡȷ룬
+ * ˴OpenȡĽһܱ߱ڣfһĴۣҲκf
+ * ʱر߻Ŀ꼴õŽ⣬ؼչܱڵ״̬
+ * Ŀ겻ƴͼ޷ѹʱ˻ΪͨA*
+ */
+public class PerimeterAStar extends AbstractSearcher {
+    private final Predictor predictor;
+    private final int depth;
+
+    public PerimeterAStar(Frontier frontier, Predictor predictor) {
+        this(frontier, predictor, PerimeterTable.DEFAULT_DEPTH);
+    }
+
+    public PerimeterAStar(Frontier frontier, Predictor predictor, int depth) {
+        super(frontier);
+        this.predictor = predictor;
+        this.depth = depth;
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        if (!problem.solvable()) {
+            return null;
+        }
+
+        frontier.clear();
+        explored.clear();
+        nodesExpanded = 0;
+        nodesGenerated = 0;
+
+        PerimeterTable table = problem.getGoal() instanceof PuzzleBoard && StateKeys.canPack(problem.getGoal())
+                ? PerimeterTable.obtain((PuzzleBoard) problem.getGoal(), depth) : null;
+        Predictor active = table == null ? predictor : new PerimeterPredictor(predictor, table);
+
+        frontier.offer(problem.root(active));
+        while (true) {
+            if (frontier.isEmpty()) {
+                return null;
+            }
+
+            Node node = frontier.poll();
+            if (problem.goal(node.getState())) {
+                return generatePath(node);
+            }
+            if (table != null && table.distance(node.getState()) >= 0) {
+                return generatePath(table.completePath(node, problem));
+            }
+
+            explored.add(node.getState());
+            for (Node child : problem.childNodes(node, active)) {
+                nodesGenerated++;
+                if (!expanded(child)) {
+                    frontier.offer(child);
+                }
+            }
+            nodesExpanded++;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package stud.g01.solver;
+
+import core.problem.Action;
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.solver.pattern.PatternDatabaseStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ŀܱ߱(ܽ)
+ * Ŀ״̬depth㣬¼ÿ״̬Ŀľȷ룬ѹ״̬ĿѰַ洢
+ * е״̬ʱg + оһĴۣʣµ·ؾݼ߻Ŀ꼴ɣ
+ * ״̬Ŀdepth+1Ϊֵ½磻
+ * ÿһոƶһ񣬽ⳤżոĿλõپͬ½绹Ҫżȡdepth+1depth+2
+ * ʵͬһĿ꣬ͨPatternDatabaseStore־ûֱӼء
+ */
+public class PerimeterTable {
+    public static final int DEFAULT_DEPTH = 16;
+
+    private static final byte EMPTY = -1;
+
+    // ڰĿȹ
+    private static final Map<String, PerimeterTable> shared = new ConcurrentHashMap<>();
+
+    private final PuzzleBoard goal;
+    private final int depth;
+    private final long[] keys;
+    private final byte[] distances;
+    private final int mask;
+    private int count;
+
+    private PerimeterTable(PuzzleBoard goal, int depth, int expectedSize) {
+        this.goal = goal;
+        this.depth = depth;
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.distances = new byte[capacity];
+        Arrays.fill(distances, EMPTY);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Ŀ״̬depth
+     */
+    public static PerimeterTable build(PuzzleBoard goal, int depth) {
+        if (goal.getSize() > 4 || depth > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("ֵ֧ܱ߱: size=" + goal.getSize() + ", depth=" + depth);
+        }
+        long startTime = System.currentTimeMillis();
+
+        List<List<State>> layers = new ArrayList<>();
+        List<State> frontier = new ArrayList<>();
+        frontier.add(goal);
+        layers.add(frontier);
+        Set<Long> seen = new HashSet<>();
+        seen.add(StateKeys.pack(goal));
+        for (int d = 1; d <= depth; d++) {
+            List<State> next = new ArrayList<>(frontier.size() * 2);
+            for (State state : frontier) {
+                for (Action action : state.actions()) {
+                    State neighbor = state.next(action);
+                    if (seen.add(StateKeys.pack(neighbor))) {
+                        next.add(neighbor);
+                    }
+                }
+            }
+            layers.add(next);
+            frontier = next;
+        }
+
+        PerimeterTable table = new PerimeterTable(goal, depth, seen.size());
+        for (int d = 0; d < layers.size(); d++) {
+            for (State state : layers.get(d)) {
+                table.put(StateKeys.pack(state), d);
+            }
+        }
+        System.out.printf("ܱ߱:  %d, ״̬ %,d,  %,d, ʱ %dms\n",
+                depth, table.count, frontier.size(), System.currentTimeMillis() - startTime);
+        return table;
+    }
+
+    /**
+     * ڹܱ߱һʱӻĿ¼ػ򹹽
+     */
+    public static PerimeterTable obtain(PuzzleBoard goal, int depth) {
+        return shared.computeIfAbsent(goal.getCompressedState() + "@" + depth, k -> loadOrBuild(goal, depth));
+    }
+
+    /**
+     * ĬϻĿ¼ܱ߱ʱдʧʱ˻صֱӹ
+     */
+    private static PerimeterTable loadOrBuild(PuzzleBoard goal, int depth) {
+        PatternDatabaseStore store = PatternDatabaseStore.getDefault();
+        try {
+            PerimeterTable[] built = new PerimeterTable[1];
+            Path file = store.obtain("perimeter" + depth, goal.getPuzzleBoard(), goal.getSize(), ".per", target -> {
+                built[0] = build(goal, depth);
+                built[0].save(target);
+            });
+            if (built[0] != null) {
+                return built[0];
+            }
+            PerimeterTable table = load(file, goal, depth);
+            System.out.printf("ܱ߱:  %s  %,d ״̬\n", file.getFileName(), table.count);
+            return table;
+        } catch (IOException e) {
+            System.out.println("ܱ߱治: " + e.getMessage() + "ֱӹ");
+            return build(goal, depth);
+        }
+    }
+
+    private void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(depth);
+            out.writeInt(count);
+            for (int i = 0; i < keys.length; i++) {
+                if (distances[i] != EMPTY) {
+                    out.writeLong(keys[i]);
+                    out.writeByte(distances[i]);
+                }
+            }
+        }
+    }
+
+    private static PerimeterTable load(Path file, PuzzleBoard goal, int depth) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int storedDepth = in.readInt();
+            if (storedDepth != depth) {
+                throw new IOException("ܱ߱Ȳ: " + storedDepth + " != " + depth);
+            }
+            int stored = in.readInt();
+            PerimeterTable table = new PerimeterTable(goal, depth, stored);
+            for (int i = 0; i < stored; i++) {
+                long key = in.readLong();
+                table.put(key, in.readByte());
+            }
+            return table;
+        }
+    }
+
+    private void put(long key, int distance) {
+        int slot = slotOf(key);
+        while (distances[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (distances[slot] == EMPTY) {
+            count++;
+        }
+        keys[slot] = key;
+        distances[slot] = (byte) distance;
+    }
+
+    /**
+     * @return ״̬Ŀľȷ룬ڱʱ-1
+     */
+    public int distance(State state) {
+        long key = StateKeys.pack(state);
+        int slot = slotOf(key);
+        while (distances[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return distances[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * ϱֵȡȷ룬ȡoutsideBound
+     */
+    public int lowerBound(State state, int heuristic) {
+        int distance = distance(state);
+        return distance >= 0 ? distance : Math.max(heuristic, outsideBound(state));
+    }
+
+    /**
+     * ״̬Ŀ½磺depthոλƵżһ
+     */
+    public int outsideBound(State state) {
+        PuzzleBoard board = (PuzzleBoard) state;
+        int size = board.getSize();
+        int from = board.getZeroPos();
+        int to = goal.getZeroPos();
+        int blankDistance = Math.abs(from / size - to / size) + Math.abs(from % size - to % size);
+        int bound = depth + 1;
+        return (bound - blankDistance) % 2 == 0 ? bound : bound + 1;
+    }
+
+    /**
+     * ӱڵĽؾݼķ߻Ŀ꣬Ŀ
+     */
+    public Node completePath(Node node, Problem problem) {
+        Node current = node;
+        int remaining = distance(current.getState());
+        while (remaining > 0) {
+            State state = current.getState();
+            Node next = null;
+            for (Action action : state.actions()) {
+                State neighbor = state.next(action);
+                if (distance(neighbor) == remaining - 1) {
+                    next = new Node(neighbor, current, action,
+                            current.getPathCost() + problem.stepCost(neighbor, action));
+                    break;
+                }
+            }
+            if (next == null) {
+                throw new IllegalStateException("ܱ߱Ҳ״̬: " + state);
+            }
+            current = next;
+            remaining--;
+        }
+        return current;
+    }
+
+    /**
+     * ǷԸ״̬ΪĿ
+     */
+    public boolean isGoal(State state) {
+        return goal.equals(state);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private int slotOf(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+}
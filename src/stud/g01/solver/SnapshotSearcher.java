@@ -0,0 +1,67 @@
+package stud.g01.solver;
+
+import core.problem.Problem;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+import stud.g01.heuristic.BackgroundPatternPredictor;
+import stud.g01.heuristic.CostBoundedPredictor;
+import stud.g01.heuristic.PatternDatabasePredictor;
+import stud.g01.solver.pattern.PatternDatabase;
+
+import java.util.Deque;
+import java.util.function.Function;
+
+/**
+ * ÿʼʱ̶̨Ԥ
+ * ̨ģʽݿ;лh˲һ£ؿչA*õŽ⡣
+ * ÿsearch()ȡһsnapshot()½hٱ仯һȡµĿա
+ * ʵԤͬÿsearch()forSearch()ȡֻڱԤ
+ * ڼ̶Ԥģʽݿ⣬ע;ͷ
+ */
+public class SnapshotSearcher extends AbstractSearcher {
+    private final Function<Problem, Predictor> provider;
+    private final Function<Predictor, AbstractSearcher> factory;
+
+    /**
+     * @param frontier  㸸ӿڣFrontierfactory
+     * @param predictor ̨;лԤ
+     * @param factory   ù̶Ԥ
+     */
+    public SnapshotSearcher(Frontier frontier, BackgroundPatternPredictor predictor,
+                            Function<Predictor, AbstractSearcher> factory) {
+        this(frontier, problem -> predictor.snapshot(), factory);
+    }
+
+    /**
+     * @param predictor ʵԤԭ
+     * @param factory   ñԤ
+     */
+    public SnapshotSearcher(Frontier frontier, CostBoundedPredictor predictor,
+                            Function<Predictor, AbstractSearcher> factory) {
+        this(frontier, problem -> predictor.forSearch(problem.getInitialState(), problem.getGoal()), factory);
+    }
+
+    private SnapshotSearcher(Frontier frontier, Function<Problem, Predictor> provider,
+                             Function<Predictor, AbstractSearcher> factory) {
+        super(frontier);
+        this.provider = provider;
+        this.factory = factory;
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        Predictor predictor = provider.apply(problem);
+        PatternDatabase pinned = PatternDatabasePredictor.pin(predictor);
+        try {
+            AbstractSearcher searcher = factory.apply(predictor);
+            Deque<Node> path = searcher.search(problem);
+            nodesExpanded = searcher.nodesExpanded();
+            nodesGenerated = searcher.nodesGenerated();
+            return path;
+        } finally {
+            PatternDatabasePredictor.unpin(pinned);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package stud.g01.solver;
+
+import core.problem.State;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+/**
+ * ״̬ѹlongûȻĽṹʹ
+ */
+public final class StateKeys {
+
+    private StateKeys() {
+    }
+
+    /**
+     * ״̬ܷѹÿ4λ16
+     */
+    public static boolean canPack(State state) {
+        return state instanceof PuzzleBoard && ((PuzzleBoard) state).getSize() <= 4;
+    }
+
+    /**
+     * ѹļǰӦcanPack()
+     */
+    public static long pack(State state) {
+        return ((PuzzleBoard) state).getCompressedState();
+    }
+}
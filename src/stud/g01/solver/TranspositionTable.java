@@ -0,0 +1,179 @@
+package stud.g01.solver;
+
+import java.util.Arrays;
+
+/**
+ * IDA*ʹõĹ̶Сû
+ * ȫû洢ÿͰۣһ۰ʣ滻ڶ滻
+ * ÿ¼
+ *   g        - εе״̬Сg
+ *   backedUp - ״̬ڱεлشfȥgطͬһεļ֦
+ *   hBound   - Ŀ۵Ŀɿ½磬Ϊֵʹ
+ *   open     - ״̬Ƿڵǰ·
+ *   context  - дʱ(ƶ֦Զ״̬)չʽȡ
+ */
+public class TranspositionTable {
+    private static final int WAYS = 2;
+
+    private final int bucketMask;
+    private final long[] keys;
+    private final int[] stamps;       // дʱĵţ0ʾղ
+    private final int[] gValues;
+    private final int[] backedUp;
+    private final int[] hBounds;
+    private final int[] depths;
+    private final boolean[] open;
+    private final int[] contexts;
+
+    // ͳ
+    private long probes;
+    private long hits;
+    private long stores;
+    private long overwrites;
+
+    /**
+     * @param capacity ۵ȡ2
+     */
+    public TranspositionTable(int capacity) {
+        int buckets = Integer.highestOneBit(Math.max(1, capacity / WAYS));
+        this.bucketMask = buckets - 1;
+        int slots = buckets * WAYS;
+        this.keys = new long[slots];
+        this.stamps = new int[slots];
+        this.gValues = new int[slots];
+        this.backedUp = new int[slots];
+        this.hBounds = new int[slots];
+        this.depths = new int[slots];
+        this.open = new boolean[slots];
+        this.contexts = new int[slots];
+    }
+
+    /**
+     * ״̬ڵĲ
+     * @return ۺţʱ-1
+     */
+    public int find(long key) {
+        probes++;
+        int base = bucketOf(key);
+        for (int i = base; i < base + WAYS; i++) {
+            if (stamps[i] != 0 && keys[i] == key) {
+                hits++;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * дһͬһ״̬Ѵʱԭظ²½
+     * @param depth ʣ(ֵg)Խ˵Խ࣬滻ʱȱ
+     * @return дĲۺ
+     */
+    public int store(long key, int stamp, int g, int backedUpValue, int hBound, int depth, boolean isOpen) {
+        return store(key, stamp, g, backedUpValue, hBound, depth, isOpen, 0);
+    }
+
+    public int store(long key, int stamp, int g, int backedUpValue, int hBound, int depth, boolean isOpen,
+                     int context) {
+        stores++;
+        int base = bucketOf(key);
+        int slot = -1;
+        for (int i = base; i < base + WAYS; i++) {
+            if (stamps[i] != 0 && keys[i] == key) {
+                slot = i;
+                hBound = Math.max(hBound, hBounds[i]);
+                break;
+            }
+        }
+
+        if (slot < 0) {
+            if (stamps[base] == 0 || depth >= depths[base] || stamps[base] < stamp) {
+                // һ۱滻ԭڶ
+                if (stamps[base] != 0) {
+                    copy(base, base + 1);
+                    overwrites++;
+                }
+                slot = base;
+            } else {
+                if (stamps[base + 1] != 0) {
+                    overwrites++;
+                }
+                slot = base + 1;
+            }
+        }
+
+        keys[slot] = key;
+        stamps[slot] = stamp;
+        gValues[slot] = g;
+        backedUp[slot] = backedUpValue;
+        hBounds[slot] = hBound;
+        depths[slot] = depth;
+        open[slot] = isOpen;
+        contexts[slot] = context;
+        return slot;
+    }
+
+    private void copy(int from, int to) {
+        keys[to] = keys[from];
+        stamps[to] = stamps[from];
+        gValues[to] = gValues[from];
+        backedUp[to] = backedUp[from];
+        hBounds[to] = hBounds[from];
+        depths[to] = depths[from];
+        open[to] = open[from];
+        contexts[to] = contexts[from];
+    }
+
+    private int bucketOf(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) ((mixed ^ (mixed >>> 32)) & bucketMask) * WAYS;
+    }
+
+    public int getStamp(int slot) {
+        return stamps[slot];
+    }
+
+    public int getG(int slot) {
+        return gValues[slot];
+    }
+
+    public int getBackedUp(int slot) {
+        return backedUp[slot];
+    }
+
+    public int getHBound(int slot) {
+        return hBounds[slot];
+    }
+
+    public boolean isOpen(int slot) {
+        return open[slot];
+    }
+
+    public int getContext(int slot) {
+        return contexts[slot];
+    }
+
+    public void clear() {
+        Arrays.fill(stamps, 0);
+        probes = 0;
+        hits = 0;
+        stores = 0;
+        overwrites = 0;
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public double getHitRate() {
+        return probes > 0 ? (double) hits / probes : 0.0;
+    }
+
+    public long getStores() {
+        return stores;
+    }
+
+    public long getOverwrites() {
+        return overwrites;
+    }
+}
@@ -1,7 +1,12 @@
 package stud.g01.solver.pattern;
 
 import core.problem.State;
+import stud.g01.solver.pattern.PatternDatabaseBuildScheduler.BuildTask;
+import stud.g01.solver.pattern.PatternDatabaseBuildScheduler.Priority;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -10,15 +15,17 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class DisjointPatternDatabase extends PatternDatabase {
     private final PatternDatabase[] subDatabases;
-    private final ExecutorService executor;
     private boolean isParallelComputation;
+    private Priority buildPriority;
+    private final List<BuildTask<Boolean>> buildTasks;
     private final long[] subDatabaseBuildTimes;
 
     public DisjointPatternDatabase(PatternDatabase[] subDatabases) {
         super(combinePatternTiles(subDatabases), subDatabases[0].size);
         this.subDatabases = Arrays.copyOf(subDatabases, subDatabases.length);
-        this.executor = Executors.newFixedThreadPool(Math.min(subDatabases.length, Runtime.getRuntime().availableProcessors()));
         this.isParallelComputation = true;
+        this.buildPriority = Priority.NORMAL;
+        this.buildTasks = new CopyOnWriteArrayList<>();
         this.subDatabaseBuildTimes = new long[subDatabases.length];
 
         validateDisjointness();
@@ -33,7 +40,8 @@ public class DisjointPatternDatabase extends PatternDatabase {
 
     @Override
     public void precompute() {
-        if (isLoaded) {
+        if (isLoaded()) {
+            isLoaded = true;
             System.out.println("ݿѼأԤ");
             return;
         }
@@ -57,17 +65,22 @@ public class DisjointPatternDatabase extends PatternDatabase {
 
     /**
      * Ԥ
+     * ݿύĹжɵͳһ
      */
     private void precomputeParallel() {
-        System.out.println("ʹòм㹹ݿ...");
+        System.out.println("ʹùйݿ...");
 
-        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
         AtomicInteger completedCount = new AtomicInteger(0);
         int totalTasks = subDatabases.length;
+        List<BuildTask<Boolean>> tasks = new ArrayList<>();
 
         for (int i = 0; i < subDatabases.length; i++) {
             final int index = i;
-            completionService.submit(() -> {
+            if (subDatabases[index].isLoaded()) {
+                continue;
+            }
+            String name = "precompute " + Arrays.toString(subDatabases[index].patternTiles) + "_" + size;
+            tasks.add(PatternDatabaseBuildScheduler.submit(name, buildPriority, () -> {
                 long startTime = System.currentTimeMillis();
                 try {
                     System.out.printf("ʼݿ %d/%d: %s\n",
@@ -77,13 +90,14 @@ public class DisjointPatternDatabase extends PatternDatabase {
 
                     long endTime = System.currentTimeMillis();
                     subDatabaseBuildTimes[index] = endTime - startTime;
-                    statesProcessed += getSubDatabaseStatesProcessed(subDatabases[index]);
 
                     System.out.printf("ݿ %d ɣʱ: %.2fs, С: %,d\n",
                             index + 1, subDatabaseBuildTimes[index] / 1000.0,
                             subDatabases[index].getSize());
 
                     return true;
+                } catch (CancellationException e) {
+                    throw e;
                 } catch (Exception e) {
                     System.out.printf("ݿ %d ʧ: %s\n", index + 1, e.getMessage());
                     return false;
@@ -92,20 +106,31 @@ public class DisjointPatternDatabase extends PatternDatabase {
                     System.out.printf(": %d/%d (%.1f%%)\n",
                             completed, totalTasks, (completed * 100.0 / totalTasks));
                 }
-            });
+            }));
         }
+        buildTasks.addAll(tasks);
 
-        for (int i = 0; i < totalTasks; i++) {
-            try {
-                Future<Boolean> future = completionService.take();
-                Boolean result = future.get(10, TimeUnit.MINUTES);
-                if (Boolean.FALSE.equals(result)) {
-                    System.out.println("ݿ⹹ʧܣִ");
+        try {
+            for (BuildTask<Boolean> task : tasks) {
+                try {
+                    Boolean result = PatternDatabaseBuildScheduler.await(task);
+                    if (Boolean.FALSE.equals(result)) {
+                        System.out.println("ݿ⹹ʧܣִ");
+                    }
+                } catch (CancellationException e) {
+                    System.out.println("ݿ⹹ȡ: " + task.getName());
+                } catch (ExecutionException e) {
+                    System.out.println("ݿ⹹쳣: " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.out.println("ȴݿ⹹ʱж");
+                    return;
                 }
-            } catch (TimeoutException e) {
-                System.out.println("ݿ⹹ʱ״̬ռ");
-            } catch (Exception e) {
-                System.out.println("ݿ⹹쳣: " + e.getMessage());
+            }
+        } finally {
+            buildTasks.removeAll(tasks);
+            for (int i = 0; i < subDatabases.length; i++) {
+                statesProcessed += getSubDatabaseStatesProcessed(subDatabases[i]);
             }
         }
     }
@@ -117,6 +142,9 @@ public class DisjointPatternDatabase extends PatternDatabase {
         System.out.println("ʹ˳㹹ݿ...");
 
         for (int i = 0; i < subDatabases.length; i++) {
+            if (subDatabases[i].isLoaded()) {
+                continue;
+            }
             long startTime = System.currentTimeMillis();
 
             System.out.printf("ݿ %d/%d: %s\n",
@@ -201,6 +229,43 @@ public class DisjointPatternDatabase extends PatternDatabase {
         return totalSize;
     }
 
+    /**
+     * ݿԵǼעУڴݿעͳƣﲻظ
+     */
+    @Override
+    public long residentBytes() {
+        return 0;
+    }
+
+    /**
+     * ݿԵǼעУһ̶
+     */
+    @Override
+    public synchronized void pin() {
+        super.pin();
+        for (PatternDatabase db : subDatabases) {
+            db.pin();
+        }
+    }
+
+    @Override
+    public synchronized void unpin() {
+        super.unpin();
+        for (PatternDatabase db : subDatabases) {
+            db.unpin();
+        }
+    }
+
+    /**
+     * ͷݿ⣬ѯʱݿԼĺļ¼
+     */
+    @Override
+    public void release() {
+        for (PatternDatabase db : subDatabases) {
+            db.release();
+        }
+    }
+
     @Override
     public void clear() {
         for (PatternDatabase db : subDatabases) {
@@ -306,17 +371,18 @@ public class DisjointPatternDatabase extends PatternDatabase {
     }
 
     /**
-     * ر̳߳
+     * ݿ⹹ȼ
+     */
+    public void setBuildPriority(Priority priority) {
+        this.buildPriority = priority;
+    }
+
+    /**
+     * ȡδɵݿ⹹߳ɹĹҪر
      */
     public void shutdown() {
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
+        for (BuildTask<Boolean> task : buildTasks) {
+            PatternDatabaseBuildScheduler.cancel(task);
         }
     }
 
@@ -3,6 +3,13 @@ package stud.g01.solver.pattern;
 import stud.g01.problem.npuzzle.PuzzleBoard;
 import core.problem.State;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -14,9 +21,12 @@ public class EfficientPatternDatabase extends PatternDatabase {
     private final int patternSize;
 
     // ʹøЧݽṹ
-    private Map<Long, Integer> optimizedDatabase;
+    private volatile Map<Long, Integer> optimizedDatabase;
     private static final int MAX_STATES = 2000000;
 
+    // 湹õİrankľʱʹ
+    private volatile RankedPatternTable rankedTable;
+
     // ܼ
     private long bfsTime;
     private long bibfsTime;
@@ -66,10 +76,74 @@ public class EfficientPatternDatabase extends PatternDatabase {
         isLoaded = true;
     }
 
+    /**
+     * ʹBFSģʽݿ
+     * ļ͹鲢дworkDirУrankʽ沢ӳ䵽ڴ
+     * @param workDir         Ŀ¼
+     * @param heapBudgetBytes ̿ʹõĶڴ
+     */
+    public void precomputeExternal(String workDir, long heapBudgetBytes) {
+        Path dir = Paths.get(workDir);
+        ExternalPatternDatabaseBuilder builder =
+                new ExternalPatternDatabaseBuilder(patternTiles, size, dir, heapBudgetBytes);
+        try {
+            Path table = builder.build(dir.resolve(getRankedTableName()));
+            loadRankedTable(table.toString());
+            this.buildTime = builder.getBuildTime();
+            this.statesProcessed = (int) Math.min(Integer.MAX_VALUE, builder.getStatesStored());
+        } catch (IOException e) {
+            throw new UncheckedIOException("湹ģʽݿʧ", e);
+        }
+    }
+
+    /**
+     * ͬϣĿ¼̹ıֱӳ
+     */
+    public void precomputeExternal(PatternDatabaseStore store, long heapBudgetBytes) {
+        try {
+            Path table = store.obtain("ranked", patternTiles, size, ".pdb", target -> {
+                ExternalPatternDatabaseBuilder builder = new ExternalPatternDatabaseBuilder(
+                        patternTiles, size, store.getDirectory(), heapBudgetBytes);
+                builder.build(target);
+                this.buildTime = builder.getBuildTime();
+                this.statesProcessed = (int) Math.min(Integer.MAX_VALUE, builder.getStatesStored());
+            });
+            loadRankedTable(table.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("湹ģʽݿʧ", e);
+        }
+    }
+
+    /**
+     * ӳһExternalPatternDatabaseBuilderɵľ
+     */
+    public void loadRankedTable(String filename) throws IOException {
+        RankedPatternTable table = RankedPatternTable.map(Paths.get(filename));
+        if (!table.matches(patternTiles, size)) {
+            throw new IOException("ģʽƥ: " + Arrays.toString(table.getPatternTiles()));
+        }
+        this.rankedTable = table;
+        optimizedDatabase = new HashMap<>();
+        this.backingFile = filename;
+        isLoaded = true;
+        System.out.printf("ӳ %s, : %,d\n", filename, table.getEntries());
+    }
+
+    /**
+     * Ĭļ
+     */
+    public String getRankedTableName() {
+        StringBuilder name = new StringBuilder("pattern_table");
+        for (int tile : patternTiles) {
+            name.append('_').append(tile);
+        }
+        return name.append('_').append(size).append('x').append(size).append(".pdb").toString();
+    }
+
     @Override
     public int getHeuristic(State state) {
         if (!isLoaded) {
-            precomputeWithBiBFS();
+            ensureLoaded();
         }
 
         if (!(state instanceof PuzzleBoard)) {
@@ -77,7 +151,13 @@ public class EfficientPatternDatabase extends PatternDatabase {
         }
 
         PuzzleBoard board = (PuzzleBoard) state;
+        RankedPatternTable table = rankedTable;
+        if (table != null) {
+            int value = table.get(rankOf(board));
+            return value == RankedPatternTable.UNREACHABLE ? calculateManhattanFallback(board) : value;
+        }
         AbstractState abstractState = createAbstractState(board);
+        // ûй̶ıܸձעͷţʱ鲻˵پ
         Integer heuristic = optimizedDatabase.get(abstractState.key);
 
         if (heuristic != null) {
@@ -87,32 +167,82 @@ public class EfficientPatternDatabase extends PatternDatabase {
         }
     }
 
+    /**
+     * ͷûкļʱ¹ڽУͬʱѯֻ߳һȴ
+     */
+    private void ensureLoaded() {
+        if (reloadFromBackingFile()) {
+            return;
+        }
+        synchronized (this) {
+            if (!isLoaded) {
+                precomputeWithBiBFS();
+            }
+        }
+    }
+
     @Override
     public int getSize() {
+        if (rankedTable != null) {
+            return (int) Math.min(Integer.MAX_VALUE, rankedTable.getEntries());
+        }
         return optimizedDatabase.size();
     }
 
     @Override
     public void clear() {
         optimizedDatabase.clear();
+        rankedTable = null;
         super.clear();
     }
 
+    /**
+     * ӳľڶ⣬ڴ
+     */
     @Override
-    public void saveToFile(String filename) {
-        // ŻݿݸƵݿڱ
-        database.putAll(optimizedDatabase);
-        super.saveToFile(filename);
-        database.clear();
+    public long residentBytes() {
+        if (rankedTable != null) {
+            return 0;
+        }
+        return (long) optimizedDatabase.size() * HASH_ENTRY_BYTES;
+    }
+
+    /**
+     * öգڲѯ̲߳޸еHashMap
+     */
+    @Override
+    public void release() {
+        optimizedDatabase = new HashMap<>();
+        rankedTable = null;
+        super.release();
+    }
+
+    @Override
+    public void writeTable(Path target) throws IOException {
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(target)))) {
+            oos.writeObject(new HashMap<>(optimizedDatabase));
+        }
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public void loadFromFile(String filename) {
+        if (filename.endsWith(".pdb")) {
+            try {
+                loadRankedTable(filename);
+                return;
+            } catch (IOException e) {
+                System.out.println("ӳʧܣ¹: " + e.getMessage());
+                precomputeWithBiBFS();
+                return;
+            }
+        }
         try {
             super.loadFromFile(filename);
-            optimizedDatabase.putAll(database);
+            Map<Long, Integer> loaded = new HashMap<>(database);
             database.clear();
+            optimizedDatabase = loaded;
             isLoaded = true;
         } catch (Exception e) {
             System.out.println("ʧܣ¹: " + e.getMessage());
@@ -151,6 +281,7 @@ public class EfficientPatternDatabase extends PatternDatabase {
 
             if (nodesProcessed - lastReport >= 10000 || nodesProcessed % 50000 == 0) {
                 double progress = (double) nodesProcessed / MAX_STATES * 100;
+                PatternDatabaseBuildScheduler.reportProgress(progress / 100);
                 System.out.printf("BFS: %,d/%,d (%.1f%%), ݿС: %,d\n",
                         nodesProcessed, MAX_STATES, progress, optimizedDatabase.size());
                 lastReport = nodesProcessed;
@@ -246,6 +377,7 @@ public class EfficientPatternDatabase extends PatternDatabase {
             }
 
             if (totalProcessed % 50000 == 0) {
+                PatternDatabaseBuildScheduler.reportProgress((double) totalProcessed / MAX_STATES);
                 System.out.printf("˫BFS: %,d/%,d, ǰ: %,d, : %,d\n",
                         totalProcessed, MAX_STATES, forwardVisited.size(), backwardVisited.size());
                 optimizeMemoryUsage();
@@ -422,6 +554,18 @@ public class EfficientPatternDatabase extends PatternDatabase {
         return new AbstractState(positions, board.getZeroPos());
     }
 
+    /**
+     * ģʽשλھеrank
+     */
+    private long rankOf(PuzzleBoard board) {
+        int[] tiles = board.getPuzzleBoard();
+        int[] positions = new int[patternSize];
+        for (int i = 0; i < patternSize; i++) {
+            positions[i] = findPosition(tiles, patternTiles[i]);
+        }
+        return RankedPatternTable.rank(positions, size * size);
+    }
+
     /**
      * Ŀ״̬
      */
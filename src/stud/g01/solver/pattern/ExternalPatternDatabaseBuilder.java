@@ -0,0 +1,555 @@
+package stud.g01.solver.pattern;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * ģʽݿ⹹
+ * BFSѳ״̬дϵļ֮ⲿ鲢ȥأ
+ * ģʽשλõдRankedPatternTable
+ * ڴֻ򻺳͹鲢Ķд壬heapBudgetBytesƣ
+ * ˿Թ89שģʽ24-puzzleķŲڴݿ⡣
+ *
+ * ״̬ģʽשλúͿոڵͨɣոģʽשƴۣ
+ * ͬһڵĿոλõȼۣͳһСĸӱʾ
+ */
+public class ExternalPatternDatabaseBuilder {
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+    private static final int INITIAL_SORT_BUFFER = 1 << 16;
+    private static final int MAX_DEPTH = 254;
+
+    private final int[] patternTiles;
+    private final int size;
+    private final int cells;
+    private final int patternSize;
+    private final Path workDir;
+    private final int sortBufferLongs;
+    private final int maxFanIn;
+
+    // λõ
+    private final int fullMask;
+    private final int firstColMask;
+    private final int lastColMask;
+
+    private Path tempDir;
+    private int fileCounter;
+
+    // ͳ
+    private long buildTime;
+    private long statesStored;
+    private long statesGenerated;
+    private int maxDepth;
+
+    /**
+     * @param patternTiles    ģʽש
+     * @param size            ƴͼߴ
+     * @param workDir         ļ͹鲢ڵĿ¼
+     * @param heapBudgetBytes ̿ʹõĶڴ
+     */
+    public ExternalPatternDatabaseBuilder(int[] patternTiles, int size, Path workDir, long heapBudgetBytes) {
+        if (size * size > 31) {
+            throw new IllegalArgumentException("湹ֲֻ֧5x5ƴͼ");
+        }
+        if (6 * (patternTiles.length + 1) > 63) {
+            throw new IllegalArgumentException("ģʽש: " + patternTiles.length);
+        }
+        this.patternTiles = Arrays.copyOf(patternTiles, patternTiles.length);
+        this.size = size;
+        this.cells = size * size;
+        this.patternSize = patternTiles.length;
+        this.workDir = workDir;
+
+        // BFS򻺳rank򻺳ͬʱڣռԤķ֮һʣಿ鲢Ķд
+        this.sortBufferLongs = (int) Math.max(INITIAL_SORT_BUFFER,
+                Math.min(Integer.MAX_VALUE - 8, heapBudgetBytes / 4 / Long.BYTES));
+        this.maxFanIn = (int) Math.max(2, Math.min(512, heapBudgetBytes / 2 / IO_BUFFER_BYTES));
+
+        int first = 0, last = 0;
+        for (int row = 0; row < size; row++) {
+            first |= 1 << (row * size);
+            last |= 1 << (row * size + size - 1);
+        }
+        this.fullMask = (1 << cells) - 1;
+        this.firstColMask = first;
+        this.lastColMask = last;
+    }
+
+    /**
+     * дoutput
+     * @return output
+     */
+    public Path build(Path output) throws IOException {
+        System.out.println("ʼ湹ģʽݿ⣬ģʽש: " + Arrays.toString(patternTiles));
+        long startTime = System.currentTimeMillis();
+        Files.createDirectories(workDir);
+        tempDir = Files.createTempDirectory(workDir, "pdb_ext_");
+        fileCounter = 0;
+        statesStored = 0;
+        statesGenerated = 0;
+
+        try {
+            RunSorter rankSorter = new RunSorter();
+            SortedFile previous = null;
+            SortedFile current = writeSingle(goalKey());
+            int depth = 0;
+
+            while (current.count > 0) {
+                if (depth > MAX_DEPTH) {
+                    throw new IllegalStateException("BFSɱʾķΧ");
+                }
+                // ܲδ֪ڵʱֻӦȡ
+                PatternDatabaseBuildScheduler.checkCancelled();
+                appendRanks(current, depth, rankSorter);
+                statesStored += current.count;
+                maxDepth = depth;
+                System.out.printf("BFS %d: %,d ״̬, ۼ: %,d\n", depth, current.count, statesStored);
+
+                SortedFile candidates = expand(current);
+                // ״̬ͼͼd+1ĺֻdd+1d+2㣬
+                // ֻҪ뵱ǰһȥأĲֱɾ
+                SortedFile next = subtract(candidates, current, previous);
+                candidates.delete();
+                if (previous != null) {
+                    previous.delete();
+                }
+                previous = current;
+                current = next;
+                depth++;
+            }
+            if (previous != null) {
+                previous.delete();
+            }
+            current.delete();
+
+            SortedFile ranks = rankSorter.finish();
+            writeTable(ranks, output);
+            ranks.delete();
+        } finally {
+            deleteTempDir();
+        }
+
+        buildTime = System.currentTimeMillis() - startTime;
+        System.out.printf("湹ɣʱ: %.2fs, ״̬: %,d, : %,d, : %d\n",
+                buildTime / 1000.0, statesStored, statesGenerated, maxDepth);
+        return output;
+    }
+
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    public long getStatesStored() {
+        return statesStored;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    // ---------------------------------------------------------------- ״̬
+
+    private long goalKey() {
+        int[] positions = new int[patternSize];
+        int patternMask = 0;
+        for (int i = 0; i < patternSize; i++) {
+            positions[i] = patternTiles[i] - 1;
+            patternMask |= 1 << positions[i];
+        }
+        return encode(positions, canonicalBlank(patternMask, cells - 1));
+    }
+
+    private long encode(int[] positions, int blank) {
+        long key = blank;
+        for (int pos : positions) {
+            key = (key << 6) | (pos & 0x3F);
+        }
+        return key;
+    }
+
+    private int decode(long key, int[] positions) {
+        for (int i = patternSize - 1; i >= 0; i--) {
+            positions[i] = (int) (key & 0x3F);
+            key >>>= 6;
+        }
+        return (int) key;
+    }
+
+    private int neighbors(int mask) {
+        return ((mask >>> size) | (mask << size)
+                | ((mask >>> 1) & ~lastColMask) | ((mask << 1) & ~firstColMask)) & fullMask;
+    }
+
+    /**
+     * ոseedֻģʽܵ
+     */
+    private int blankRegion(int patternMask, int seed) {
+        int free = ~patternMask & fullMask;
+        int region = 1 << seed;
+        while (true) {
+            int grown = (region | neighbors(region)) & free;
+            if (grown == region) {
+                return region;
+            }
+            region = grown;
+        }
+    }
+
+    private int canonicalBlank(int patternMask, int seed) {
+        return Integer.numberOfTrailingZeros(blankRegion(patternMask, seed));
+    }
+
+    /**
+     * һ״̬к(ƶһģʽש)ȥغдļ
+     */
+    private SortedFile expand(SortedFile level) throws IOException {
+        RunSorter sorter = new RunSorter();
+        int[] positions = new int[patternSize];
+        int[] owner = new int[cells];
+
+        try (LongReader reader = level.open()) {
+            while (reader.hasNext()) {
+                int blank = decode(reader.next(), positions);
+                int patternMask = 0;
+                for (int i = 0; i < patternSize; i++) {
+                    patternMask |= 1 << positions[i];
+                    owner[positions[i]] = i;
+                }
+
+                int region = blankRegion(patternMask, blank);
+                int border = neighbors(region) & patternMask;
+                while (border != 0) {
+                    int from = Integer.numberOfTrailingZeros(border);
+                    border &= border - 1;
+                    int tile = owner[from];
+
+                    int targets = neighbors(1 << from) & region;
+                    while (targets != 0) {
+                        int to = Integer.numberOfTrailingZeros(targets);
+                        targets &= targets - 1;
+
+                        int newMask = patternMask ^ (1 << from) ^ (1 << to);
+                        positions[tile] = to;
+                        sorter.add(encode(positions, canonicalBlank(newMask, from)));
+                        positions[tile] = from;
+                        statesGenerated++;
+                    }
+                }
+            }
+        }
+        return sorter.finish();
+    }
+
+    /**
+     * ¼ÿ״̬(rank, )ոͬ״̬rankϺϲ
+     */
+    private void appendRanks(SortedFile level, int depth, RunSorter rankSorter) throws IOException {
+        int[] positions = new int[patternSize];
+        try (LongReader reader = level.open()) {
+            while (reader.hasNext()) {
+                decode(reader.next(), positions);
+                rankSorter.add((RankedPatternTable.rank(positions, cells) << 8) | depth);
+            }
+        }
+    }
+
+    /**
+     * rank˳дͬһrankȡС
+     */
+    private void writeTable(SortedFile ranks, Path output) throws IOException {
+        long entries = RankedPatternTable.permutationCount(cells, patternSize);
+        Path temp = tempDir.resolve("table.tmp");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), IO_BUFFER_BYTES));
+             LongReader reader = ranks.open()) {
+            out.writeInt(RankedPatternTable.MAGIC);
+            out.writeInt(size);
+            out.writeInt(patternSize);
+            for (int tile : patternTiles) {
+                out.writeInt(tile);
+            }
+            out.writeLong(entries);
+
+            long expected = 0;
+            while (reader.hasNext()) {
+                long record = reader.next();
+                long rank = record >>> 8;
+                if (rank < expected) {
+                    continue;
+                }
+                while (expected < rank) {
+                    out.write(RankedPatternTable.UNREACHABLE);
+                    expected++;
+                }
+                out.write((int) (record & 0xFF));
+                expected++;
+            }
+            while (expected < entries) {
+                out.write(RankedPatternTable.UNREACHABLE);
+                expected++;
+            }
+        }
+
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // ---------------------------------------------------------------- ļ
+
+    private Path newFile() {
+        return tempDir.resolve("f" + (fileCounter++) + ".bin");
+    }
+
+    private SortedFile writeSingle(long value) throws IOException {
+        LongWriter writer = new LongWriter(newFile());
+        writer.write(value);
+        return writer.finish();
+    }
+
+    /**
+     * 򼯺ϲsourceвexclude1exclude2Ԫ
+     */
+    private SortedFile subtract(SortedFile source, SortedFile exclude1, SortedFile exclude2) throws IOException {
+        LongWriter writer = new LongWriter(newFile());
+        try (LongReader in = source.open();
+             LongReader ex1 = exclude1.open();
+             LongReader ex2 = exclude2 == null ? null : exclude2.open()) {
+            while (in.hasNext()) {
+                long value = in.next();
+                if (!skipTo(ex1, value) && !skipTo(ex2, value)) {
+                    writer.write(value);
+                }
+            }
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        }
+        return writer.finish();
+    }
+
+    private boolean skipTo(LongReader reader, long value) throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        while (reader.hasNext() && reader.peek() < value) {
+            reader.next();
+        }
+        return reader.hasNext() && reader.peek() == value;
+    }
+
+    /**
+     * ·鲢ȥأÿ鲢maxFanIn
+     */
+    private SortedFile mergeRuns(List<SortedFile> runs) throws IOException {
+        if (runs.isEmpty()) {
+            return new LongWriter(newFile()).finish();
+        }
+        while (runs.size() > 1) {
+            List<SortedFile> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += maxFanIn) {
+                List<SortedFile> group = runs.subList(i, Math.min(runs.size(), i + maxFanIn));
+                if (group.size() == 1) {
+                    merged.add(group.get(0));
+                    continue;
+                }
+                merged.add(mergeGroup(group));
+                for (SortedFile run : group) {
+                    run.delete();
+                }
+            }
+            runs = merged;
+        }
+        return runs.get(0);
+    }
+
+    private SortedFile mergeGroup(List<SortedFile> group) throws IOException {
+        PriorityQueue<LongReader> heap = new PriorityQueue<>(group.size(),
+                (a, b) -> Long.compare(a.peek(), b.peek()));
+        List<LongReader> readers = new ArrayList<>(group.size());
+        LongWriter writer = new LongWriter(newFile());
+        try {
+            for (SortedFile run : group) {
+                LongReader reader = run.open();
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    heap.add(reader);
+                }
+            }
+            boolean first = true;
+            long last = 0;
+            while (!heap.isEmpty()) {
+                LongReader reader = heap.poll();
+                long value = reader.next();
+                if (first || value != last) {
+                    writer.write(value);
+                    last = value;
+                    first = false;
+                }
+                if (reader.hasNext()) {
+                    heap.add(reader);
+                }
+            }
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        } finally {
+            for (LongReader reader : readers) {
+                reader.close();
+            }
+        }
+        return writer.finish();
+    }
+
+    private void deleteTempDir() {
+        if (tempDir == null) {
+            return;
+        }
+        File[] files = tempDir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        tempDir.toFile().delete();
+        tempDir = null;
+    }
+
+    /**
+     * һظlongļ
+     */
+    private static final class SortedFile {
+        final Path path;
+        final long count;
+
+        SortedFile(Path path, long count) {
+            this.path = path;
+            this.count = count;
+        }
+
+        LongReader open() throws IOException {
+            return new LongReader(path, count);
+        }
+
+        void delete() throws IOException {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static final class LongReader implements Closeable {
+        private final DataInputStream in;
+        private long remaining;
+        private long head;
+        private boolean hasHead;
+
+        LongReader(Path path, long count) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), IO_BUFFER_BYTES));
+            this.remaining = count;
+            advance();
+        }
+
+        private void advance() throws IOException {
+            hasHead = remaining > 0;
+            if (hasHead) {
+                head = in.readLong();
+                remaining--;
+            }
+        }
+
+        boolean hasNext() {
+            return hasHead;
+        }
+
+        long peek() {
+            return head;
+        }
+
+        long next() throws IOException {
+            long value = head;
+            advance();
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static final class LongWriter {
+        private final Path path;
+        private final DataOutputStream out;
+        private long count;
+
+        LongWriter(Path path) throws IOException {
+            this.path = path;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), IO_BUFFER_BYTES));
+        }
+
+        void write(long value) throws IOException {
+            out.writeLong(value);
+            count++;
+        }
+
+        SortedFile finish() throws IOException {
+            out.close();
+            return new SortedFile(path, count);
+        }
+
+        void abort() {
+            try {
+                out.close();
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * ڴ򣬻ʱдһΣʱ鲢ж
+     */
+    private final class RunSorter {
+        private long[] buffer = new long[Math.min(INITIAL_SORT_BUFFER, sortBufferLongs)];
+        private int count;
+        private final List<SortedFile> runs = new ArrayList<>();
+
+        void add(long value) throws IOException {
+            if (count == buffer.length) {
+                if (buffer.length < sortBufferLongs) {
+                    buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length * 2, sortBufferLongs));
+                } else {
+                    spill();
+                }
+            }
+            buffer[count++] = value;
+        }
+
+        private void spill() throws IOException {
+            Arrays.sort(buffer, 0, count);
+            LongWriter writer = new LongWriter(newFile());
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || buffer[i] != buffer[i - 1]) {
+                    writer.write(buffer[i]);
+                }
+            }
+            runs.add(writer.finish());
+            count = 0;
+        }
+
+        SortedFile finish() throws IOException {
+            if (count > 0 || runs.isEmpty()) {
+                spill();
+            }
+            buffer = null;
+            return mergeRuns(runs);
+        }
+    }
+}
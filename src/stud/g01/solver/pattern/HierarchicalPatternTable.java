@@ -0,0 +1,213 @@
+package stud.g01.solver.pattern;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * ĵģʽ(Hierarchical A*)
+ * Ԥȹݿ⣺ѯĳ״̬ʱڳռA*ĳ״̬Ŀ꣬
+ * ռеֵǱשپѼס½硣
+ * ÿѧľ붼޵LRU
+ * ·ϵ״̬Ϊȷֵرյ״̬Ϊ½ C - gȷֵǰ
+ *
+ * OnDemandPatternTableͬո񾭹ģʽӵƶΪ0ֵӡ
+ */
+public class HierarchicalPatternTable {
+    private final int[] patternTiles;
+    private final int size;
+    private final long goalKey;
+
+    // ֵλǷΪȷ룬λǾ
+    private final LinkedHashMap<Long, Integer> memo;
+
+    // ͳ
+    private long queries;
+    private long memoHits;
+    private long searches;
+    private long abstractExpansions;
+
+    /**
+     * @param capacity ĳ״̬
+     */
+    public HierarchicalPatternTable(int[] patternTiles, int size, int capacity) {
+        if (patternTiles.length > 9 || size * size > 64) {
+            throw new IllegalArgumentException("ģʽ: " + Arrays.toString(patternTiles));
+        }
+        this.patternTiles = patternTiles.clone();
+        this.size = size;
+
+        int[] goalPositions = new int[patternTiles.length];
+        for (int i = 0; i < patternTiles.length; i++) {
+            goalPositions[i] = patternTiles[i] - 1;
+        }
+        this.goalKey = new PatternState(goalPositions, size * size - 1, size).normalized().getKey();
+
+        this.memo = new LinkedHashMap<Long, Integer>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+        memo.put(goalKey, exact(0));
+    }
+
+    private static final class AbstractNode implements Comparable<AbstractNode> {
+        final PatternState state;
+        final int g;
+        final int f;
+        final AbstractNode parent;
+
+        AbstractNode(PatternState state, int g, int f, AbstractNode parent) {
+            this.state = state;
+            this.g = g;
+            this.f = f;
+            this.parent = parent;
+        }
+
+        @Override
+        public int compareTo(AbstractNode other) {
+            // fͬʱgģ쿿Ŀ֪ȷֵ״̬
+            return f != other.f ? Integer.compare(f, other.f) : Integer.compare(other.g, g);
+        }
+    }
+
+    /**
+     * ϱשĿľȷ
+     */
+    public synchronized int getHeuristic(PuzzleBoard board) {
+        queries++;
+        int[] tiles = board.getPuzzleBoard();
+        int[] positions = new int[patternTiles.length];
+        for (int i = 0; i < patternTiles.length; i++) {
+            positions[i] = findPosition(tiles, patternTiles[i]);
+        }
+        PatternState start = new PatternState(positions, board.getZeroPos(), size).normalized();
+
+        Integer cached = memo.get(start.getKey());
+        if (cached != null && isExact(cached)) {
+            memoHits++;
+            return distanceOf(cached);
+        }
+        return search(start);
+    }
+
+    /**
+     * ռеA*startĿľ벢ס;ѧֵ
+     */
+    private int search(PatternState start) {
+        searches++;
+        PriorityQueue<AbstractNode> open = new PriorityQueue<>();
+        Map<Long, Integer> bestG = new HashMap<>();
+        List<AbstractNode> closed = new ArrayList<>();
+
+        open.add(new AbstractNode(start, 0, estimate(start), null));
+        bestG.put(start.getKey(), 0);
+
+        while (!open.isEmpty()) {
+            AbstractNode node = open.poll();
+            long key = node.state.getKey();
+            if (bestG.get(key) < node.g) {
+                continue;
+            }
+
+            // ״̬֪ʱfŽĴۣ࿪ŽڵfС
+            // Ŀ굥жϣĻѱ̭
+            Integer known = key == goalKey ? Integer.valueOf(exact(0)) : memo.get(key);
+            if (known != null && isExact(known)) {
+                int cost = node.g + distanceOf(known);
+                learn(node, closed, cost);
+                return cost;
+            }
+
+            closed.add(node);
+            abstractExpansions++;
+            for (PatternState neighbor : node.state.generateRegionNeighbors()) {
+                int g = node.g + 1;
+                Integer previous = bestG.get(neighbor.getKey());
+                if (previous == null || g < previous) {
+                    bestG.put(neighbor.getKey(), g);
+                    open.add(new AbstractNode(neighbor, g, g + estimate(neighbor), node));
+                }
+            }
+        }
+
+        // Ŀ겻ɴֻڲɽ
+        return estimate(start);
+    }
+
+    /**
+     * ·ϵ״̬Ϊȷֵرյ״̬Ϊ½ cost - g
+     */
+    private void learn(AbstractNode last, List<AbstractNode> closed, int cost) {
+        for (AbstractNode node : closed) {
+            long key = node.state.getKey();
+            int bound = cost - node.g;
+            Integer known = memo.get(key);
+            if (known == null || (!isExact(known) && distanceOf(known) < bound)) {
+                memo.put(key, lowerBound(bound));
+            }
+        }
+        for (AbstractNode node = last; node != null; node = node.parent) {
+            memo.put(node.state.getKey(), exact(cost - node.g));
+        }
+    }
+
+    /**
+     * ռеֵپ뻺½ȡ
+     */
+    private int estimate(PatternState state) {
+        int[] positions = state.getPatternPositions();
+        int manhattan = 0;
+        for (int i = 0; i < positions.length; i++) {
+            int goalPos = patternTiles[i] - 1;
+            manhattan += Math.abs(positions[i] / size - goalPos / size)
+                    + Math.abs(positions[i] % size - goalPos % size);
+        }
+        Integer known = memo.get(state.getKey());
+        return known == null ? manhattan : Math.max(manhattan, distanceOf(known));
+    }
+
+    private static int exact(int distance) {
+        return distance << 1 | 1;
+    }
+
+    private static int lowerBound(int distance) {
+        return distance << 1;
+    }
+
+    private static boolean isExact(int value) {
+        return (value & 1) != 0;
+    }
+
+    private static int distanceOf(int value) {
+        return value >>> 1;
+    }
+
+    private static int findPosition(int[] tiles, int value) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == value) return i;
+        }
+        return -1;
+    }
+
+    public int[] getPatternTiles() {
+        return patternTiles.clone();
+    }
+
+    public synchronized int getMemoSize() {
+        return memo.size();
+    }
+
+    public synchronized void printStatistics() {
+        System.out.printf("  %s: ѯ %,d,  %,d (%.1f%%),  %,d, չ %,d,  %,d\n",
+                Arrays.toString(patternTiles), queries, memoHits,
+                queries > 0 ? memoHits * 100.0 / queries : 0, searches, abstractExpansions, memo.size());
+    }
+}
@@ -0,0 +1,126 @@
+package stud.g01.solver.pattern;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 㹹ĵģʽ
+ * Ŀ״̬BFSֻչǰĴϽΪֹ
+ * IDA*ֵTֻҪ"벻T"״̬Զ״̬ȡֵٶᱻ
+ * Ա״̬"ɲ+1"(ڸģʽپ)ı֦Чͬ
+ *
+ * ո񾭹ģʽӵƶΪ0ÿֻͳƱשƶֵӡ
+ * ѯextendTo()ConcurrentHashMapУĳһ״̬ȫдŹµɲ
+ * ѯȶɲٲв鲻״̬һڶĲֵʼղʵ롣
+ */
+public class OnDemandPatternTable {
+    private final int[] patternTiles;
+    private final int size;
+    private final int maxStates;
+
+    private final Map<Long, Integer> distances;
+    private List<PatternState> frontier;        // ֻextendTo()з
+    private volatile int completedDepth;
+    private volatile boolean complete;
+
+    /**
+     * @param maxStates ״̬ޣﵽټ
+     */
+    public OnDemandPatternTable(int[] patternTiles, int size, int maxStates) {
+        if (patternTiles.length > 9 || size * size > 64) {
+            throw new IllegalArgumentException("ģʽ: " + Arrays.toString(patternTiles));
+        }
+        this.patternTiles = patternTiles.clone();
+        this.size = size;
+        this.maxStates = maxStates;
+        this.distances = new ConcurrentHashMap<>();
+
+        int[] goalPositions = new int[patternTiles.length];
+        for (int i = 0; i < patternTiles.length; i++) {
+            goalPositions[i] = patternTiles[i] - 1;
+        }
+        PatternState goal = new PatternState(goalPositions, size * size - 1, size).normalized();
+        distances.put(goal.getKey(), 0);
+        frontier = new ArrayList<>();
+        frontier.add(goal);
+        completedDepth = 0;
+    }
+
+    /**
+     * ѱdepth㣬Ѿ㹻ﵽ״̬ʱֱӷ
+     */
+    public synchronized void extendTo(int depth) {
+        while (completedDepth < depth && !frontier.isEmpty() && distances.size() < maxStates) {
+            int nextDepth = completedDepth + 1;
+            List<PatternState> next = new ArrayList<>(frontier.size() * 2);
+            for (PatternState state : frontier) {
+                for (PatternState neighbor : state.generateRegionNeighbors()) {
+                    if (distances.putIfAbsent(neighbor.getKey(), nextDepth) == null) {
+                        next.add(neighbor);
+                    }
+                }
+            }
+            frontier = next;
+            // ״̬д룬ٹ
+            complete = next.isEmpty();
+            completedDepth = nextDepth;
+        }
+    }
+
+    /**
+     * ϱשĿĴ½
+     */
+    public int getHeuristic(PuzzleBoard board) {
+        int[] tiles = board.getPuzzleBoard();
+        int[] positions = new int[patternTiles.length];
+        int manhattan = 0;
+        for (int i = 0; i < patternTiles.length; i++) {
+            int pos = findPosition(tiles, patternTiles[i]);
+            positions[i] = pos;
+            int goalPos = patternTiles[i] - 1;
+            manhattan += Math.abs(pos / size - goalPos / size) + Math.abs(pos % size - goalPos % size);
+        }
+
+        // ȶѹĽٲ鲻ʱ֮ڵĲһ״̬
+        boolean built = complete;
+        int depth = completedDepth;
+        PatternState state = new PatternState(positions, board.getZeroPos(), size).normalized();
+        Integer distance = distances.get(state.getKey());
+        if (distance != null) {
+            return distance;
+        }
+        // ״̬һ㣻űѽʱ˵״̬ɴֻپ
+        return built ? manhattan : Math.max(depth + 1, manhattan);
+    }
+
+    private static int findPosition(int[] tiles, int value) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == value) return i;
+        }
+        return -1;
+    }
+
+    public int[] getPatternTiles() {
+        return patternTiles.clone();
+    }
+
+    /**
+     * չĲ״̬ľ붼
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public int getSize() {
+        return distances.size();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+}
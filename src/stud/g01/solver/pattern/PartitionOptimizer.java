@@ -0,0 +1,451 @@
+package stud.g01.solver.pattern;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * ཻģʽݿķѡ
+ * ڴԤöٺѡĴש飬ʵ֣
+ * ƽֵԼKREʽ N(d) = sum b^i * P(d - i) ԤIDA*ڵ
+ * Ԥ㰴չĸʽ(BFSɵľȷRankedPatternTable)㣻
+ * ֲıֻΪÿ鰴չһ״̬޵OnDemandPatternTable
+ * ״̬ȡȷ룬״̬ȡɲ+1Сıչıͬ
+ * ԤڵٵķΪƼֻPatternDatabaseBuilder.createRankedPartition()
+ */
+public class PartitionOptimizer {
+    private final int size;
+    private final int cells;
+    private final long memoryBudgetBytes;
+
+    private int maxGroups = 4;
+    private int maxCandidates = 12;
+    private int sampleCount = 1000;
+    private int scoringStates = 500000;
+    private int solutionDepth;
+    private long seed = 42;
+
+    private final List<Candidate> evaluated = new ArrayList<>();
+    // ÿשϵֵͬѡظֵֻһ
+    private final Map<String, int[]> groupValues = new HashMap<>();
+
+    /**
+     * һѡ
+     */
+    public static class Candidate {
+        private final int[][] groups;
+        private final long memoryBytes;
+        private double averageHeuristic;
+        private double predictedNodes = Double.NaN;
+
+        Candidate(int[][] groups, long memoryBytes) {
+            this.groups = groups;
+            this.memoryBytes = memoryBytes;
+        }
+
+        public int[][] getGroups() {
+            int[][] copy = new int[groups.length][];
+            for (int i = 0; i < groups.length; i++) {
+                copy[i] = groups[i].clone();
+            }
+            return copy;
+        }
+
+        /**
+         * ʽ(ÿ״̬һֽ)ڴ
+         */
+        public long getMemoryBytes() {
+            return memoryBytes;
+        }
+
+        public double getAverageHeuristic() {
+            return averageHeuristic;
+        }
+
+        public double getPredictedNodes() {
+            return predictedNodes;
+        }
+
+        public String getShape() {
+            StringBuilder shape = new StringBuilder();
+            for (int[] group : groups) {
+                if (shape.length() > 0) {
+                    shape.append('-');
+                }
+                shape.append(group.length);
+            }
+            return shape.toString();
+        }
+
+        @Override
+        public String toString() {
+            return getShape() + " " + Arrays.deepToString(groups);
+        }
+    }
+
+    /**
+     * @param size              ƴͼߴ
+     * @param memoryBudgetBytes ݿϼƵڴ
+     */
+    public PartitionOptimizer(int size, long memoryBudgetBytes) {
+        if (size < 2 || size * size > 31) {
+            throw new IllegalArgumentException("ֵ֧ƴͼߴ: " + size);
+        }
+        this.size = size;
+        this.cells = size * size;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        // ʵƽŽⳤȣ8Լ2215Լ53
+        this.solutionDepth = size == 3 ? 22 : size == 4 ? 53 : size * size * size;
+    }
+
+    public void setMaxGroups(int maxGroups) {
+        this.maxGroups = maxGroups;
+    }
+
+    /**
+     * ֵĺѡఴԤڴӴСض
+     */
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public void setSampleCount(int sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    /**
+     * ʱÿ鰴չ״̬ޣԽԽӽı
+     */
+    public void setScoringStates(int scoringStates) {
+        this.scoringStates = scoringStates;
+    }
+
+    /**
+     * KREʽʹõĽ
+     */
+    public void setSolutionDepth(int solutionDepth) {
+        this.solutionDepth = solutionDepth;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * ö١ֺѡ
+     * @return Ԥڵٵķ
+     */
+    public Candidate optimize() {
+        System.out.println("=== ѡ ===");
+        System.out.printf("ƴͼߴ: %dx%d, ڴԤ: %,d KB, : %d, : %d, ֱ״̬: %,d\n",
+                size, size, memoryBudgetBytes / 1024, sampleCount, solutionDepth, scoringStates);
+
+        List<Candidate> candidates = enumerateCandidates();
+        System.out.println("Ԥڵĺѡ: " + candidates.size());
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException("ڴԤûпõķ");
+        }
+        if (candidates.size() > maxCandidates) {
+            candidates = new ArrayList<>(candidates.subList(0, maxCandidates));
+            System.out.println("ֻڴռ " + maxCandidates + " ѡ");
+        }
+
+        List<PuzzleBoard> samples = generateSamples();
+        double branchingFactor = estimateBranchingFactor(samples);
+        System.out.printf("ƽ֧: %.4f\n", branchingFactor);
+
+        evaluated.clear();
+        groupValues.clear();
+        for (Candidate candidate : candidates) {
+            evaluate(candidate, samples, branchingFactor);
+            evaluated.add(candidate);
+            System.out.printf("  %-8s ڴ: %,10d KB, ƽֵ: %6.2f, Ԥڵ: %.3e  %s\n",
+                    candidate.getShape(), candidate.memoryBytes / 1024, candidate.averageHeuristic,
+                    candidate.predictedNodes, Arrays.deepToString(candidate.groups));
+        }
+
+        Candidate best = evaluated.stream()
+                .min(Comparator.comparingDouble((Candidate c) -> c.predictedNodes)
+                        .thenComparing(c -> -c.averageHeuristic))
+                .orElseThrow(IllegalStateException::new);
+        System.out.println("Ƽ: " + best);
+        System.out.println("÷: PatternDatabaseBuilder.createRankedPartition(new int[][]"
+                + Arrays.deepToString(best.groups).replace('[', '{').replace(']', '}') + ", " + size + ")");
+        return best;
+    }
+
+    /**
+     * ֵĺѡ˳
+     */
+    public List<Candidate> getEvaluated() {
+        return new ArrayList<>(evaluated);
+    }
+
+    /**
+     * öԤڵĺѡ
+     * שĿλڵ˳УгɶΣÿһ飻
+     * ֻ""ķϲ󶼻ᳬԤ㣬СķǱ֧䡣
+     */
+    List<Candidate> enumerateCandidates() {
+        Set<String> seen = new LinkedHashSet<>();
+        List<Candidate> candidates = new ArrayList<>();
+        for (int[] order : tileOrders()) {
+            List<int[]> compositions = new ArrayList<>();
+            compose(order.length, new ArrayList<>(), compositions);
+            for (int[] parts : compositions) {
+                if (!isMaximal(parts)) {
+                    continue;
+                }
+                int[][] groups = split(order, parts);
+                String identity = canonical(groups);
+                if (seen.add(identity)) {
+                    candidates.add(new Candidate(groups, memoryOf(parts)));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingLong((Candidate c) -> -c.memoryBytes)
+                .thenComparingInt(c -> c.groups.length));
+        return candidates;
+    }
+
+    /**
+     * СԼ˳еĴש
+     */
+    private List<int[]> tileOrders() {
+        List<int[]> orders = new ArrayList<>();
+        for (int transpose = 0; transpose < 2; transpose++) {
+            for (int snake = 0; snake < 2; snake++) {
+                int[] order = new int[cells - 1];
+                int count = 0;
+                for (int major = 0; major < size; major++) {
+                    for (int j = 0; j < size; j++) {
+                        int minor = snake == 1 && major % 2 == 1 ? size - 1 - j : j;
+                        int position = transpose == 0 ? major * size + minor : minor * size + major;
+                        if (position != cells - 1) {
+                            order[count++] = position + 1;
+                        }
+                    }
+                }
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    private void compose(int remaining, List<Integer> parts, List<int[]> result) {
+        if (remaining == 0) {
+            result.add(parts.stream().mapToInt(Integer::intValue).toArray());
+            return;
+        }
+        if (parts.size() == maxGroups) {
+            return;
+        }
+        for (int part = 1; part <= remaining; part++) {
+            if (RankedPatternTable.permutationCount(cells, part) > memoryBudgetBytes) {
+                break;
+            }
+            parts.add(part);
+            compose(remaining - part, parts, result);
+            parts.remove(parts.size() - 1);
+        }
+    }
+
+    private boolean isMaximal(int[] parts) {
+        long memory = memoryOf(parts);
+        if (memory > memoryBudgetBytes) {
+            return false;
+        }
+        for (int i = 0; i + 1 < parts.length; i++) {
+            long merged = memory - tableBytes(parts[i]) - tableBytes(parts[i + 1])
+                    + tableBytes(parts[i] + parts[i + 1]);
+            if (merged <= memoryBudgetBytes) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long memoryOf(int[] parts) {
+        long total = 0;
+        for (int part : parts) {
+            total += tableBytes(part);
+        }
+        return total;
+    }
+
+    private long tableBytes(int patternLength) {
+        return RankedPatternTable.permutationCount(cells, patternLength)
+                + RankedPatternTable.headerBytes(patternLength);
+    }
+
+    private static int[][] split(int[] order, int[] parts) {
+        int[][] groups = new int[parts.length][];
+        int offset = 0;
+        for (int i = 0; i < parts.length; i++) {
+            groups[i] = Arrays.copyOfRange(order, offset, offset + parts[i]);
+            Arrays.sort(groups[i]);
+            offset += parts[i];
+        }
+        return groups;
+    }
+
+    private static String canonical(int[][] groups) {
+        String[] keys = new String[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            keys[i] = Arrays.toString(groups[i]);
+        }
+        Arrays.sort(keys);
+        return String.join("|", keys);
+    }
+
+    /**
+     * Ϊѡֵ֣
+     */
+    private void evaluate(Candidate candidate, List<PuzzleBoard> samples, double branchingFactor) {
+        int[] heuristics = new int[samples.size()];
+        for (int[] group : candidate.groups) {
+            int[] values = groupValues(group, samples);
+            for (int i = 0; i < heuristics.length; i++) {
+                heuristics[i] += values[i];
+            }
+        }
+
+        int[] histogram = new int[solutionDepth + 1];
+        long total = 0;
+        for (int h : heuristics) {
+            total += h;
+            histogram[Math.min(h, solutionDepth)]++;
+        }
+        candidate.averageHeuristic = (double) total / samples.size();
+        candidate.predictedNodes = predictNodes(histogram, samples.size(), branchingFactor);
+    }
+
+    /**
+     * һשڸϵֵ
+     * չ״̬ΪֹͶͬʱֻһֱռڴ
+     */
+    private int[] groupValues(int[] group, List<PuzzleBoard> samples) {
+        return groupValues.computeIfAbsent(Arrays.toString(group), key -> {
+            OnDemandPatternTable table = new OnDemandPatternTable(group, size, scoringStates);
+            table.extendTo(Integer.MAX_VALUE);
+            System.out.printf("  ֱ %s: %s, : %d, ״̬: %,d\n", key,
+                    table.isComplete() ? "" : "ض", table.getCompletedDepth(), table.getSize());
+            int[] values = new int[samples.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = positionValue(table, group, samples.get(i));
+            }
+            return values;
+        });
+    }
+
+    /**
+     * յľֻģʽשλǿոڸʱСֵ
+     * 蹹ıֿոѿո񻻵ÿģʽϲȡСֵһ
+     */
+    private int positionValue(OnDemandPatternTable table, int[] group, PuzzleBoard board) {
+        int[] tiles = board.getPuzzleBoard();
+        boolean[] inPattern = new boolean[cells];
+        for (int tile : group) {
+            inPattern[tile] = true;
+        }
+        int blank = board.getZeroPos();
+        int best = Integer.MAX_VALUE;
+        for (int cell = 0; cell < cells; cell++) {
+            if (inPattern[tiles[cell]]) {
+                continue;
+            }
+            int[] moved = tiles.clone();
+            moved[blank] = moved[cell];
+            moved[cell] = 0;
+            best = Math.min(best, table.getHeuristic(new PuzzleBoard(size, moved)));
+        }
+        return best;
+    }
+
+    /**
+     * KREʽiԼb^iڵ㣬ֵd-iıP(d-i)ᱻչ
+     */
+    private double predictNodes(int[] histogram, int sampleSize, double branchingFactor) {
+        double[] cumulative = new double[solutionDepth + 1];
+        int running = 0;
+        for (int h = 0; h <= solutionDepth; h++) {
+            running += histogram[h];
+            cumulative[h] = (double) running / sampleSize;
+        }
+        double nodes = 0;
+        double levelSize = 1;
+        for (int depth = 0; depth <= solutionDepth; depth++) {
+            nodes += levelSize * cumulative[solutionDepth - depth];
+            levelSize *= branchingFactor;
+        }
+        return nodes;
+    }
+
+    /**
+     * ȥصڵһƽ֧
+     */
+    private double estimateBranchingFactor(List<PuzzleBoard> samples) {
+        long moves = 0;
+        for (PuzzleBoard board : samples) {
+            int row = board.getZeroPos() / size;
+            int col = board.getZeroPos() % size;
+            moves += (row > 0 ? 1 : 0) + (row < size - 1 ? 1 : 0) + (col > 0 ? 1 : 0) + (col < size - 1 ? 1 : 0);
+        }
+        return (double) moves / samples.size() - 1;
+    }
+
+    /**
+     * Ŀɽʵ
+     */
+    private List<PuzzleBoard> generateSamples() {
+        Random random = new Random(seed);
+        List<PuzzleBoard> samples = new ArrayList<>(sampleCount);
+        int[] tiles = new int[cells];
+        while (samples.size() < sampleCount) {
+            for (int i = 0; i < cells; i++) {
+                tiles[i] = i;
+            }
+            for (int i = cells - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = tiles[i];
+                tiles[i] = tiles[j];
+                tiles[j] = t;
+            }
+            if (isSolvable(tiles)) {
+                samples.add(new PuzzleBoard(size, tiles));
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Ŀ״̬ո½ǣ()ӿո񵽵еľ(ż)Ϊżʱɽ
+     */
+    private boolean isSolvable(int[] tiles) {
+        int inversions = 0;
+        int blank = 0;
+        for (int i = 0; i < cells; i++) {
+            if (tiles[i] == 0) {
+                blank = i;
+                continue;
+            }
+            for (int j = i + 1; j < cells; j++) {
+                if (tiles[j] != 0 && tiles[j] < tiles[i]) {
+                    inversions++;
+                }
+            }
+        }
+        if (size % 2 == 1) {
+            return inversions % 2 == 0;
+        }
+        return (inversions + size - 1 - blank / size) % 2 == 0;
+    }
+}
@@ -4,6 +4,8 @@ import core.problem.State;
 import stud.g01.problem.npuzzle.PuzzleBoard;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,7 +18,16 @@ public abstract class PatternDatabase {
     protected final int[] patternTiles;
     protected final int size;
     protected final int patternSize;
-    protected boolean isLoaded;
+    protected volatile boolean isLoaded;
+
+    // עͷź¼صļ
+    protected volatile String backingFile;
+
+    // ʹñݿ0ʱעͷֻڳбʱ޸
+    private volatile int pins;
+
+    // һHashMap<Long, Integer>Ķڴ㣺NodeLongIntegerͰλ
+    protected static final int HASH_ENTRY_BYTES = 80;
 
     // ͳ
     protected long buildTime;
@@ -96,6 +107,74 @@ public abstract class PatternDatabase {
         return database.size();
     }
 
+    /**
+     * ݿռõĶڴ(ֽ)
+     */
+    public long residentBytes() {
+        return (long) database.size() * HASH_ENTRY_BYTES;
+    }
+
+    /**
+     * ͷڴеı֮ԴӺļ¼
+     */
+    public void release() {
+        database.clear();
+        isLoaded = false;
+    }
+
+    /**
+     * һʼʹñݿ⣬ǰעͷhв˻پ
+     * עͷʹͬһͷҪôڹ̶֮ǰɣҪôȵ̶֮
+     */
+    public synchronized void pin() {
+        pins++;
+    }
+
+    /**
+     * pin()ɶԵ
+     */
+    public synchronized void unpin() {
+        if (pins > 0) {
+            pins--;
+        }
+    }
+
+    public boolean isPinned() {
+        return pins > 0;
+    }
+
+    public String getBackingFile() {
+        return backingFile;
+    }
+
+    public void setBackingFile(String backingFile) {
+        this.backingFile = backingFile;
+    }
+
+    /**
+     * ͷźӺļ¼
+     * @return ݿǷѼ
+     */
+    protected boolean reloadFromBackingFile() {
+        synchronized (this) {
+            if (isLoaded) {
+                return true;
+            }
+            String file = backingFile;
+            if (file == null || !new File(file).exists()) {
+                return false;
+            }
+            System.out.println("Ӻļ¼ģʽݿ: " + file);
+            loadFromFile(file);
+            if (!isLoaded) {
+                return false;
+            }
+        }
+        // ֪ͨעͷݿʱ̵߳¼ػȴ
+        PatternDatabaseRegistry.noteReloaded(this);
+        return true;
+    }
+
     /**
      * ȡʱ
      */
@@ -147,8 +226,8 @@ public abstract class PatternDatabase {
      */
     public void saveToFile(String filename) {
         long startTime = System.currentTimeMillis();
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filename))) {
-            oos.writeObject(database);
+        try {
+            writeTable(new File(filename).toPath());
             long endTime = System.currentTimeMillis();
             System.out.println("ݿѱ浽: " + filename + " (" + (endTime - startTime) + "ms)");
         } catch (IOException e) {
@@ -156,6 +235,16 @@ public abstract class PatternDatabase {
         }
     }
 
+    /**
+     * ѱлļʧʱ׳쳣Ŀ¼жǷ񷢲
+     */
+    public void writeTable(Path target) throws IOException {
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(target)))) {
+            oos.writeObject(database);
+        }
+    }
+
     /**
      * ļ
      */
@@ -240,81 +329,3 @@ public abstract class PatternDatabase {
         System.out.println("ڴʹ: ~" + (database.size() * 16 / 1024) + "KB");
     }
 }
-
-/**
- * ģʽ״̬ڲ
- */
-class PatternState {
-    private final int[] patternPositions;
-    private final int blankPos;
-    private final int size;
-    private final long key;
-
-    private static final int[][] DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
-
-    public PatternState(int[] patternPositions, int blankPos, int size) {
-        this.patternPositions = patternPositions.clone();
-        this.blankPos = blankPos;
-        this.size = size;
-        this.key = computeKey();
-    }
-
-    private long computeKey() {
-        long computedKey = blankPos;
-        for (int pos : patternPositions) {
-            computedKey = (computedKey << 6) | (pos & 0x3F);
-        }
-        return computedKey;
-    }
-
-    public long getKey() {
-        return key;
-    }
-
-    public PatternState[] generateNeighbors() {
-        PatternState[] neighbors = new PatternState[4];
-        int count = 0;
-
-        int blankRow = blankPos / size;
-        int blankCol = blankPos % size;
-
-        for (int[] dir : DIRECTIONS) {
-            int newRow = blankRow + dir[0];
-            int newCol = blankCol + dir[1];
-
-            if (newRow >= 0 && newRow < size && newCol >= 0 && newCol < size) {
-                int newBlankPos = newRow * size + newCol;
-
-                int movedTileIndex = -1;
-                for (int i = 0; i < patternPositions.length; i++) {
-                    if (patternPositions[i] == newBlankPos) {
-                        movedTileIndex = i;
-                        break;
-                    }
-                }
-
-                if (movedTileIndex != -1) {
-                    int[] newPositions = patternPositions.clone();
-                    newPositions[movedTileIndex] = blankPos;
-                    neighbors[count++] = new PatternState(newPositions, newBlankPos, size);
-                }
-            }
-        }
-
-        if (count < neighbors.length) {
-            PatternState[] result = new PatternState[count];
-            System.arraycopy(neighbors, 0, result, 0, count);
-            return result;
-        }
-
-        return neighbors;
-    }
-
-    public int getBlankPos() {
-        return blankPos;
-    }
-
-    public int[] getPatternPositions() {
-        return patternPositions.clone();
-    }
-}
\ No newline at end of file
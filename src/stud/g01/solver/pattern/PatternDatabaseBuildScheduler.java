@@ -0,0 +1,248 @@
+package stud.g01.solver.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ģʽݿ⹹õĵ
+ * ߳ޣŶӵȼӣǰҪıԤء
+ * ֻͬŶһΣٴύȼʱŶӵ
+ * ͨreportProgress()㱨ȣͬʱӦȡ
+ */
+public class PatternDatabaseBuildScheduler {
+
+    /**
+     * ȼURGENTִ
+     */
+    public enum Priority {
+        URGENT, NORMAL, SPECULATIVE
+    }
+
+    public static final String THREADS_PROPERTY = "pdb.build.threads";
+
+    private static final int PARALLELISM = Integer.getInteger(THREADS_PROPERTY,
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            PARALLELISM, PARALLELISM, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+            r -> {
+                Thread thread = new Thread(r, "pdb-build-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    // δɵ񣬰ȥ
+    private static final Map<String, BuildTask<?>> pending = new ConcurrentHashMap<>();
+    private static final ThreadLocal<BuildTask<?>> currentTask = new ThreadLocal<>();
+
+    private static final AtomicInteger completed = new AtomicInteger();
+    private static final AtomicInteger cancelled = new AtomicInteger();
+
+    private PatternDatabaseBuildScheduler() {
+    }
+
+    /**
+     * һ񣬰ȼύ˳Ŷ
+     */
+    public static final class BuildTask<T> extends FutureTask<T> implements Comparable<BuildTask<?>> {
+        private final String name;
+        private volatile Priority priority;
+        private volatile long order;
+        private volatile double progress;
+        private volatile long startTime;
+
+        private BuildTask(String name, Priority priority, Callable<T> callable) {
+            super(callable);
+            this.name = name;
+            this.priority = priority;
+            this.order = sequence.incrementAndGet();
+        }
+
+        @Override
+        public void run() {
+            currentTask.set(this);
+            startTime = System.currentTimeMillis();
+            try {
+                super.run();
+            } finally {
+                currentTask.remove();
+            }
+        }
+
+        @Override
+        protected void done() {
+            pending.remove(name, this);
+            if (isCancelled()) {
+                cancelled.incrementAndGet();
+            } else {
+                completed.incrementAndGet();
+            }
+        }
+
+        @Override
+        public int compareTo(BuildTask<?> other) {
+            int cmp = priority.compareTo(other.priority);
+            return cmp != 0 ? cmp : Long.compare(order, other.order);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * ɵıδ֪ʱΪ0
+         */
+        public double getProgress() {
+            return progress;
+        }
+
+        public boolean isRunning() {
+            return startTime > 0 && !isDone();
+        }
+    }
+
+    /**
+     * ύһ
+     * ͬδʱظύֻҪʱȼе
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BuildTask<T> submit(String name, Priority priority, Callable<T> callable) {
+        BuildTask<T> task = new BuildTask<>(name, priority, callable);
+        BuildTask<?> existing = pending.putIfAbsent(name, task);
+        if (existing != null) {
+            promote(existing, priority);
+            return (BuildTask<T>) existing;
+        }
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * ͬŶȼ񲻴ڻִʱκ
+     */
+    public static void promote(String name, Priority priority) {
+        BuildTask<?> task = pending.get(name);
+        if (task != null) {
+            promote(task, priority);
+        }
+    }
+
+    private static void promote(BuildTask<?> task, Priority priority) {
+        synchronized (task) {
+            if (priority.compareTo(task.priority) >= 0) {
+                return;
+            }
+            // ȶвΪԪصֶα仯ȡٷŻ
+            if (executor.remove(task)) {
+                task.priority = priority;
+                task.order = sequence.incrementAndGet();
+                executor.execute(task);
+                System.out.println("ȼ: " + task.name + " -> " + priority);
+            } else {
+                task.priority = priority;
+            }
+        }
+    }
+
+    /**
+     * ȴɲؽ
+     * ڹ߳еȴûʼʱֱڵǰִ̳߳߳رȴռ
+     */
+    public static <T> T await(BuildTask<T> task) throws ExecutionException, InterruptedException {
+        if (isWorkerThread() && executor.remove(task)) {
+            BuildTask<?> outer = currentTask.get();
+            try {
+                task.run();
+            } finally {
+                currentTask.set(outer);
+            }
+        }
+        return task.get();
+    }
+
+    /**
+     * ȡŶеֱƳУִе´λ㱨ʱֹͣ
+     */
+    public static boolean cancel(BuildTask<?> task) {
+        executor.remove(task);
+        return task.cancel(true);
+    }
+
+    /**
+     * ɹã㱨ǰĽ
+     * @throws CancellationException ǰѱȡ
+     */
+    public static void reportProgress(double fraction) {
+        BuildTask<?> task = currentTask.get();
+        if (task == null) {
+            return;
+        }
+        task.progress = Math.max(0, Math.min(1, fraction));
+        checkCancelled();
+    }
+
+    /**
+     * ǰѱȡʱ׳CancellationException
+     */
+    public static void checkCancelled() {
+        BuildTask<?> task = currentTask.get();
+        if (task != null && (task.isCancelled() || Thread.currentThread().isInterrupted())) {
+            throw new CancellationException("ȡ: " + task.name);
+        }
+    }
+
+    public static boolean isWorkerThread() {
+        return currentTask.get() != null;
+    }
+
+    public static int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public static int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public static int getParallelism() {
+        return PARALLELISM;
+    }
+
+    /**
+     * δɵ
+     */
+    public static List<BuildTask<?>> getPendingTasks() {
+        return new ArrayList<>(pending.values());
+    }
+
+    public static void printStatus() {
+        System.out.println("=== ģʽݿ⹹ ===");
+        System.out.printf("ж: %d, ִ: %d, Ŷ: %d, : %d, ȡ: %d\n",
+                PARALLELISM, getActiveCount(), getQueueDepth(), completed.get(), cancelled.get());
+        for (BuildTask<?> task : pending.values()) {
+            System.out.printf("  %-28s %-11s %s %.1f%%\n", task.name, task.priority,
+                    task.isRunning() ? "ִ" : "Ŷ", task.progress * 100);
+        }
+    }
+}
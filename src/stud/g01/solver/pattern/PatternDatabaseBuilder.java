@@ -1,9 +1,16 @@
 package stud.g01.solver.pattern;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import stud.g01.solver.pattern.PatternDatabaseBuildScheduler.BuildTask;
+import stud.g01.solver.pattern.PatternDatabaseBuildScheduler.Priority;
 
 /**
  * Żģʽݿ⹹
@@ -11,11 +18,6 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class PatternDatabaseBuilder {
 
-    // ȫֻ棬ظͬģʽݿ
-    private static final Map<String, PatternDatabase> globalCache = new ConcurrentHashMap<>();
-    private static final Map<String, Long> cacheTimestamps = new ConcurrentHashMap<>();
-    private static final long CACHE_TIMEOUT_MS = 30 * 60 * 1000; // 30ӻ泬ʱ
-
     // Ԥķ
     private static final int[] PATTERN_78_GROUP1 = {1, 2, 3, 4, 5, 6, 7};
     private static final int[] PATTERN_78_GROUP2 = {8, 9, 10, 11, 12, 13, 14, 15};
@@ -31,6 +33,10 @@ public class PatternDatabaseBuilder {
      * ޸6-6-3 - ʹûŻ
      */
     public static PatternDatabase createSixSixThreePartition(int size) {
+        return createSixSixThreePartition(size, Priority.URGENT);
+    }
+
+    private static PatternDatabase createSixSixThreePartition(int size, Priority priority) {
         String cacheKey = "6-6-3_" + size;
         return getOrCreateDatabase(cacheKey, () -> {
             if (size != 4) {
@@ -44,16 +50,15 @@ public class PatternDatabaseBuilder {
                 validatePartition(PATTERN_663_GROUP1, PATTERN_663_GROUP2, PATTERN_663_GROUP3, size);
 
                 // ʹŻĹݿ
-                EfficientPatternDatabase db1 = createOptimizedDatabase(PATTERN_663_GROUP1, size);
-                EfficientPatternDatabase db2 = createOptimizedDatabase(PATTERN_663_GROUP2, size);
-                EfficientPatternDatabase db3 = createOptimizedDatabase(PATTERN_663_GROUP3, size);
+                PatternDatabase[] subDatabases = createOptimizedDatabases(priority, size,
+                        PATTERN_663_GROUP1, PATTERN_663_GROUP2, PATTERN_663_GROUP3);
 
                 System.out.println("6-6-3ģʽݿⴴɹ");
                 System.out.println("1: " + Arrays.toString(PATTERN_663_GROUP1) + " (Ԥ״̬: ~" + estimateStateCount(PATTERN_663_GROUP1, size) + ")");
                 System.out.println("2: " + Arrays.toString(PATTERN_663_GROUP2) + " (Ԥ״̬: ~" + estimateStateCount(PATTERN_663_GROUP2, size) + ")");
                 System.out.println("3: " + Arrays.toString(PATTERN_663_GROUP3) + " (Ԥ״̬: ~" + estimateStateCount(PATTERN_663_GROUP3, size) + ")");
 
-                DisjointPatternDatabase disjointDB = new DisjointPatternDatabase(new PatternDatabase[]{db1, db2, db3});
+                DisjointPatternDatabase disjointDB = new DisjointPatternDatabase(subDatabases);
                 disjointDB.setParallelComputation(true); // òм
 
                 return disjointDB;
@@ -69,6 +74,10 @@ public class PatternDatabaseBuilder {
      * ޸7-8 - ʹûŻ
      */
     public static PatternDatabase createSevenEightPartition(int size) {
+        return createSevenEightPartition(size, Priority.URGENT);
+    }
+
+    private static PatternDatabase createSevenEightPartition(int size, Priority priority) {
         String cacheKey = "7-8_" + size;
         return getOrCreateDatabase(cacheKey, () -> {
             if (size != 4) {
@@ -82,14 +91,14 @@ public class PatternDatabaseBuilder {
                 validatePartition(PATTERN_78_GROUP1, PATTERN_78_GROUP2, size);
 
                 // ʹŻĹݿ
-                EfficientPatternDatabase db1 = createOptimizedDatabase(PATTERN_78_GROUP1, size);
-                EfficientPatternDatabase db2 = createOptimizedDatabase(PATTERN_78_GROUP2, size);
+                PatternDatabase[] subDatabases = createOptimizedDatabases(priority, size,
+                        PATTERN_78_GROUP1, PATTERN_78_GROUP2);
 
                 System.out.println("7-8ģʽݿⴴɹ");
                 System.out.println("1: " + Arrays.toString(PATTERN_78_GROUP1) + " (Ԥ״̬: ~" + estimateStateCount(PATTERN_78_GROUP1, size) + ")");
                 System.out.println("2: " + Arrays.toString(PATTERN_78_GROUP2) + " (Ԥ״̬: ~" + estimateStateCount(PATTERN_78_GROUP2, size) + ")");
 
-                DisjointPatternDatabase disjointDB = new DisjointPatternDatabase(new PatternDatabase[]{db1, db2});
+                DisjointPatternDatabase disjointDB = new DisjointPatternDatabase(subDatabases);
                 disjointDB.setParallelComputation(true); // òм
 
                 return disjointDB;
@@ -102,47 +111,116 @@ public class PatternDatabaseBuilder {
     }
 
     /**
-     * Żĵģʽݿ
+     * ͨдģʽݿ⣬ȫɺ󷵻
      */
-    private static EfficientPatternDatabase createOptimizedDatabase(int[] patternTiles, int size) {
-        String cacheKey = Arrays.toString(patternTiles) + "_" + size;
+    static PatternDatabase[] createOptimizedDatabases(Priority priority, int size, int[]... groups) {
+        BuildTask<?>[] tasks = new BuildTask<?>[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            int[] group = groups[i];
+            tasks[i] = PatternDatabaseBuildScheduler.submit(leafKey(group, size), priority,
+                    () -> createOptimizedDatabase(group, size));
+        }
+        return awaitAll(tasks);
+    }
 
-        PatternDatabase cached = globalCache.get(cacheKey);
-        if (cached instanceof EfficientPatternDatabase) {
-            System.out.println("ʹûģʽݿ: " + Arrays.toString(patternTiles));
-            return (EfficientPatternDatabase) cached;
+    /**
+     * ͨдrankľȷȫɺ󷵻
+     * ÿռһֽڣPartitionOptimizerڴʱʹõĸʽͬ
+     */
+    static PatternDatabase[] createRankedDatabases(Priority priority, int size, int[]... groups) {
+        BuildTask<?>[] tasks = new BuildTask<?>[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            int[] group = groups[i];
+            tasks[i] = PatternDatabaseBuildScheduler.submit(rankedKey(group, size), priority,
+                    () -> createRankedDatabase(group, size));
         }
+        return awaitAll(tasks);
+    }
 
-        EfficientPatternDatabase db = new EfficientPatternDatabase(patternTiles, size);
+    private static PatternDatabase[] awaitAll(BuildTask<?>[] tasks) {
+        PatternDatabase[] databases = new PatternDatabase[tasks.length];
+        try {
+            for (int i = 0; i < tasks.length; i++) {
+                databases[i] = (PatternDatabase) PatternDatabaseBuildScheduler.await(tasks[i]);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("ȴģʽݿ⹹ʱж", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("ݿ⹹ʧ: " + e.getCause().getMessage(), e.getCause());
+        }
+        return databases;
+    }
 
-        // Դļ
-        String filename = generateFilename(patternTiles, size);
-        if (java.nio.file.Files.exists(java.nio.file.Paths.get(filename))) {
-            System.out.println("ļģʽݿ: " + filename);
-            db.loadFromFile(filename);
-        } else {
-            System.out.println("ļڣʹ˫BFS: " + Arrays.toString(patternTiles));
-            db.precomputeWithBiBFS();
+    private static String leafKey(int[] patternTiles, int size) {
+        return Arrays.toString(patternTiles) + "_" + size;
+    }
 
-            // 첽浽ļ
-            new Thread(() -> {
-                try {
-                    db.saveToFile(filename);
-                } catch (Exception e) {
-                    System.out.println("첽ʧ: " + e.getMessage());
-                }
-            }).start();
-        }
+    private static String rankedKey(int[] patternTiles, int size) {
+        return "ranked_" + leafKey(patternTiles, size);
+    }
 
-        // ݿ
-        globalCache.put(cacheKey, db);
-        cacheTimestamps.put(cacheKey, System.currentTimeMillis());
+    /**
+     * Żĵģʽݿ
+     */
+    private static EfficientPatternDatabase createOptimizedDatabase(int[] patternTiles, int size) {
+        String cacheKey = leafKey(patternTiles, size);
+
+        return (EfficientPatternDatabase) PatternDatabaseRegistry.getOrLoad(cacheKey, () -> {
+            EfficientPatternDatabase db = new EfficientPatternDatabase(patternTiles, size);
 
-        return db;
+            // ӹĿ¼ȡûʱɵһõĽ̹
+            try {
+                Path file = PatternDatabaseStore.getDefault().obtain("bibfs", patternTiles, size, ".ser", target -> {
+                    Path legacy = Paths.get(generateFilename(patternTiles, size));
+                    if (Files.exists(legacy)) {
+                        System.out.println("빤Ŀ¼еģʽݿ: " + legacy);
+                        Files.copy(legacy, target, StandardCopyOption.REPLACE_EXISTING);
+                    } else {
+                        System.out.println("вڣʹ˫BFS: " + Arrays.toString(patternTiles));
+                        db.precomputeWithBiBFS();
+                        db.writeTable(target);
+                    }
+                });
+                if (!db.isLoaded()) {
+                    System.out.println("ӻĿ¼ģʽݿ: " + file.getFileName());
+                    db.loadFromFile(file.toString());
+                }
+                db.setBackingFile(file.toString());
+            } catch (IOException e) {
+                System.out.println("Ŀ¼: " + e.getMessage());
+                if (!db.isLoaded()) {
+                    db.precomputeWithBiBFS();
+                }
+            }
+            return db;
+        });
     }
 
     /**
-     * ļ
+     * BFSȷģʽݿ
+     * Ŀ¼Ŀ¼ʱʱĿ¼й
+     */
+    private static EfficientPatternDatabase createRankedDatabase(int[] patternTiles, int size) {
+        return (EfficientPatternDatabase) PatternDatabaseRegistry.getOrLoad(rankedKey(patternTiles, size), () -> {
+            EfficientPatternDatabase db = new EfficientPatternDatabase(patternTiles, size);
+            long heapBudget = Runtime.getRuntime().maxMemory() / 4;
+            try {
+                db.precomputeExternal(PatternDatabaseStore.getDefault(), heapBudget);
+            } catch (UncheckedIOException e) {
+                System.out.println("Ŀ¼: " + e.getCause().getMessage());
+                try {
+                    db.precomputeExternal(Files.createTempDirectory("pdb").toString(), heapBudget);
+                } catch (IOException io) {
+                    throw new UncheckedIOException("޷ʱĿ¼", io);
+                }
+            }
+            return db;
+        });
+    }
+
+    /**
+     * ɰ汾ڹĿ¼еļ
      */
     private static String generateFilename(int[] patternTiles, int size) {
         String patternStr = Arrays.toString(patternTiles)
@@ -153,15 +231,16 @@ public class PatternDatabaseBuilder {
     /**
      * ֤ȷ
      */
-    private static void validatePartition(int[]... groups) {
+    private static void validatePartition(int size, int[]... groups) {
         System.out.println("֤ȷ...");
 
-        // зǷ񸲸1-15ûص
-        boolean[] covered = new boolean[16]; // 1-15
+        // зǷ񸲸1size*size-1ûص
+        int tiles = size * size - 1;
+        boolean[] covered = new boolean[tiles + 1];
 
         for (int[] group : groups) {
             for (int tile : group) {
-                if (tile < 1 || tile > 15) {
+                if (tile < 1 || tile > tiles) {
                     throw new IllegalArgumentException("ЧĴש: " + tile);
                 }
                 if (covered[tile]) {
@@ -171,8 +250,8 @@ public class PatternDatabaseBuilder {
             }
         }
 
-        // Ƿ񸲸1-15Ĵש
-        for (int i = 1; i <= 15; i++) {
+        // Ƿ񸲸дש
+        for (int i = 1; i <= tiles; i++) {
             if (!covered[i]) {
                 throw new IllegalArgumentException("שȱʧ: " + i);
             }
@@ -185,38 +264,46 @@ public class PatternDatabaseBuilder {
      * ֤ȷԣذ汾
      */
     private static void validatePartition(int[] group1, int[] group2, int size) {
-        validatePartition(new int[][]{group1, group2});
+        validatePartition(size, group1, group2);
     }
 
     /**
      * ֤ȷԣذ汾
      */
     private static void validatePartition(int[] group1, int[] group2, int[] group3, int size) {
-        validatePartition(new int[][]{group1, group2, group3});
+        validatePartition(size, group1, group2, group3);
     }
 
     /**
      * ԭеСģʽ - Ż汾
      */
     public static PatternDatabase createCornerPattern(int size) {
+        return createCornerPattern(size, Priority.URGENT);
+    }
+
+    private static PatternDatabase createCornerPattern(int size, Priority priority) {
         String cacheKey = "corner_" + size;
         return getOrCreateDatabase(cacheKey, () -> {
             if (size != 3) {
                 throw new IllegalArgumentException("Corner pattern is designed for 3x3 puzzles");
             }
-            EfficientPatternDatabase db = createOptimizedDatabase(PATTERN_CORNER, size);
+            PatternDatabase db = createOptimizedDatabases(priority, size, PATTERN_CORNER)[0];
             System.out.println("ģʽݿ: " + Arrays.toString(PATTERN_CORNER));
             return db;
         });
     }
 
     public static PatternDatabase createEdgePattern(int size) {
+        return createEdgePattern(size, Priority.URGENT);
+    }
+
+    private static PatternDatabase createEdgePattern(int size, Priority priority) {
         String cacheKey = "edge_" + size;
         return getOrCreateDatabase(cacheKey, () -> {
             if (size != 3) {
                 throw new IllegalArgumentException("Edge pattern is designed for 3x3 puzzles");
             }
-            EfficientPatternDatabase db = createOptimizedDatabase(PATTERN_EDGE, size);
+            PatternDatabase db = createOptimizedDatabases(priority, size, PATTERN_EDGE)[0];
             System.out.println("ģʽݿ: " + Arrays.toString(PATTERN_EDGE));
             return db;
         });
@@ -226,55 +313,63 @@ public class PatternDatabaseBuilder {
      * ƴģʽݿ - Ż汾
      */
     public static PatternDatabase createByName(String name, int size) {
-        String cacheKey = name + "_" + size;
-        return getOrCreateDatabase(cacheKey, () -> {
-            switch (name.toUpperCase()) {
-                case "7-8":
-                    return createSevenEightPartition(size);
-                case "6-6-3":
-                    return createSixSixThreePartition(size);
-                case "CORNER":
-                    return createCornerPattern(size);
-                case "EDGE":
-                    return createEdgePattern(size);
-                default:
-                    throw new IllegalArgumentException("δ֪ģʽݿ: " + name);
-            }
-        });
+        return createByName(name, size, Priority.URGENT);
     }
 
     /**
-     * ȡ򴴽ݿ⣨棩
+     * ָȼŶӵͬһݿᱻȼ
+     * ݿҪȴݿĹ񣬲ڹ߳еã
+     * ߳̿ڵȴһ߳ڼصͬǸ߳ڵ
      */
-    private static PatternDatabase getOrCreateDatabase(String cacheKey, DatabaseFactory factory) {
-        // 黺
-        PatternDatabase cached = globalCache.get(cacheKey);
-        if (cached != null) {
-            Long timestamp = cacheTimestamps.get(cacheKey);
-            if (timestamp != null && (System.currentTimeMillis() - timestamp) < CACHE_TIMEOUT_MS) {
-                System.out.println("ʹûݿ: " + cacheKey);
-                return cached;
-            } else {
-                // ڣ
-                globalCache.remove(cacheKey);
-                cacheTimestamps.remove(cacheKey);
-            }
+    public static PatternDatabase createByName(String name, int size, Priority priority) {
+        if (PatternDatabaseBuildScheduler.isWorkerThread()) {
+            throw new IllegalStateException("ڹ߳дģʽݿ: " + name);
         }
+        promote(name, size, priority);
+        // ԼעеǼǣֻɣͬһǶ׼
+        switch (name.toUpperCase()) {
+            case "7-8":
+                return createSevenEightPartition(size, priority);
+            case "6-6-3":
+                return createSixSixThreePartition(size, priority);
+            case "CORNER":
+                return createCornerPattern(size, priority);
+            case "EDGE":
+                return createEdgePattern(size, priority);
+            default:
+                throw new IllegalArgumentException("δ֪ģʽݿ: " + name);
+        }
+    }
 
-        // ݿ
-        PatternDatabase database = factory.create();
-        globalCache.put(cacheKey, database);
-        cacheTimestamps.put(cacheKey, System.currentTimeMillis());
+    /**
+     * ָģʽݿŶеݿ⹹priority
+     */
+    public static void promote(String name, int size, Priority priority) {
+        for (int[] group : partitionGroups(name)) {
+            PatternDatabaseBuildScheduler.promote(leafKey(group, size), priority);
+        }
+    }
 
-        return database;
+    private static int[][] partitionGroups(String name) {
+        switch (name.toUpperCase()) {
+            case "7-8":
+                return new int[][]{PATTERN_78_GROUP1, PATTERN_78_GROUP2};
+            case "6-6-3":
+                return new int[][]{PATTERN_663_GROUP1, PATTERN_663_GROUP2, PATTERN_663_GROUP3};
+            case "CORNER":
+                return new int[][]{PATTERN_CORNER};
+            case "EDGE":
+                return new int[][]{PATTERN_EDGE};
+            default:
+                return new int[0][];
+        }
     }
 
     /**
-     * ݿ⹤ӿ
+     * ȡ򴴽ݿ⣬ͬһֻṹһ
      */
-    @FunctionalInterface
-    private interface DatabaseFactory {
-        PatternDatabase create();
+    private static PatternDatabase getOrCreateDatabase(String cacheKey, Supplier<PatternDatabase> factory) {
+        return PatternDatabaseRegistry.getOrLoad(cacheKey, factory);
     }
 
     /**
@@ -330,86 +425,74 @@ public class PatternDatabaseBuilder {
 
     /**
      * Ԥسģʽݿ
+     * ֻѸݿŽУڹ߳еȴװ
+     * ֮ʱͬŶӾͱȼֱӴעȡá
      */
     public static void preloadCommonDatabases() {
         System.out.println("Ԥسģʽݿ...");
 
-        Thread preloadThread = new Thread(() -> {
-            try {
-                // Ԥ4x4ĳģʽ
-                createSevenEightPartition(4);
-                createSixSixThreePartition(4);
-
-                // Ԥ3x3ĳģʽ
-                createCornerPattern(3);
-                createEdgePattern(3);
-
-                System.out.println("ģʽݿԤ");
-            } catch (Exception e) {
-                System.out.println("Ԥʧ: " + e.getMessage());
-            }
-        });
+        // ԤͶԵģڵǰҪĹ֮
+        preloadLeaves("7-8", 4);
+        preloadLeaves("6-6-3", 4);
+        preloadLeaves("CORNER", 3);
+        preloadLeaves("EDGE", 3);
+    }
 
-        preloadThread.setDaemon(true);
-        preloadThread.start();
+    private static void preloadLeaves(String name, int size) {
+        for (int[] group : partitionGroups(name)) {
+            PatternDatabaseBuildScheduler.submit(leafKey(group, size), Priority.SPECULATIVE,
+                    () -> createOptimizedDatabase(group, size));
+        }
     }
 
     /**
      * 
      */
     public static void clearCache() {
-        int size = globalCache.size();
-        globalCache.clear();
-        cacheTimestamps.clear();
-        System.out.println("棬ͷ " + size + " ݿ");
+        PatternDatabaseRegistry.clear();
     }
 
     /**
      * ȡͳϢ
      */
     public static void printCacheStatistics() {
-        System.out.println("=== ģʽݿ⻺ͳ ===");
-        System.out.println("ݿ: " + globalCache.size());
-
-        long totalMemory = 0;
-        for (Map.Entry<String, PatternDatabase> entry : globalCache.entrySet()) {
-            PatternDatabase db = entry.getValue();
-            totalMemory += db.getSize() * 16L; // ڴʹ
-            System.out.printf("  %s: %,d ״̬\n", entry.getKey(), db.getSize());
-        }
+        PatternDatabaseRegistry.printStatistics();
+    }
 
-        System.out.printf("ڴʹ: %,d KB\n", totalMemory / 1024);
+    /**
+     * ά - ڴԤͷδʹõݿ
+     */
+    public static void cleanupCache() {
+        PatternDatabaseRegistry.trimToBudget();
+    }
 
-        // ʾʱϢ
-        long now = System.currentTimeMillis();
-        for (Map.Entry<String, Long> entry : cacheTimestamps.entrySet()) {
-            long age = (now - entry.getValue()) / 1000;
-            System.out.printf("  %s:  %d \n", entry.getKey(), age);
-        }
+    /**
+     * ڴԤԶѡӦĲཻģʽݿ
+     */
+    public static PatternDatabase createOptimizedPartition(int size, long memoryBudgetBytes) {
+        PartitionOptimizer.Candidate best = new PartitionOptimizer(size, memoryBudgetBytes).optimize();
+        return createRankedPartition(best.getGroups(), size);
     }
 
     /**
-     * ά - Ŀ
+     * ɾȷɵԶģʽݿ
+     * ÿһRankedPatternTableڴռPartitionOptimizerĹһ
      */
-    public static void cleanupCache() {
-        long now = System.currentTimeMillis();
-        int removed = 0;
-
-        for (Map.Entry<String, Long> entry : cacheTimestamps.entrySet()) {
-            if ((now - entry.getValue()) > CACHE_TIMEOUT_MS) {
-                String key = entry.getKey();
-                globalCache.remove(key);
-                cacheTimestamps.remove(key);
-                removed++;
-            }
+    public static PatternDatabase createRankedPartition(int[][] groups, int size) {
+        if (groups == null || groups.length == 0) {
+            throw new IllegalArgumentException("鲻Ϊ");
         }
 
-        if (removed > 0) {
-            System.out.println("ά:  " + removed + " Ŀ");
-        }
+        String cacheKey = "ranked_custom_" + Arrays.deepHashCode(groups) + "_" + size;
+        return getOrCreateDatabase(cacheKey, () -> {
+            System.out.println("ȷģʽݿ...");
+            validatePartition(size, groups);
 
-        // 
-        System.gc();
+            PatternDatabase[] subDatabases = createRankedDatabases(Priority.URGENT, size, groups);
+            DisjointPatternDatabase disjointDB = new DisjointPatternDatabase(subDatabases);
+            disjointDB.setParallelComputation(groups.length > 1);
+            return disjointDB;
+        });
     }
 
     /**
@@ -425,15 +508,14 @@ public class PatternDatabaseBuilder {
             System.out.println("Զģʽݿ...");
 
             // ֤
-            validatePartition(groups);
+            validatePartition(size, groups);
 
             // ݿ
-            PatternDatabase[] subDatabases = new PatternDatabase[groups.length];
             for (int i = 0; i < groups.length; i++) {
                 System.out.printf("ݿ %d/%d: %s\n",
                         i + 1, groups.length, Arrays.toString(groups[i]));
-                subDatabases[i] = createOptimizedDatabase(groups[i], size);
             }
+            PatternDatabase[] subDatabases = createOptimizedDatabases(Priority.URGENT, size, groups);
 
             DisjointPatternDatabase disjointDB = new DisjointPatternDatabase(subDatabases);
             disjointDB.setParallelComputation(groups.length > 1);
@@ -442,33 +524,4 @@ public class PatternDatabaseBuilder {
             return disjointDB;
         });
     }
-
-    static {
-        // עرչӣJVMرʱԴ
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            System.out.println("ģʽݿԴ...");
-            cleanupCache();
-
-            // رDisjointPatternDatabase̳߳
-            for (PatternDatabase db : globalCache.values()) {
-                if (db instanceof DisjointPatternDatabase) {
-                    ((DisjointPatternDatabase) db).shutdown();
-                }
-            }
-        }));
-
-        // ά߳
-        Thread cacheMaintenanceThread = new Thread(() -> {
-            while (true) {
-                try {
-                    Thread.sleep(5 * 60 * 1000); // ÿ5һ
-                    cleanupCache();
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-        });
-        cacheMaintenanceThread.setDaemon(true);
-        cacheMaintenanceThread.start();
-    }
-}
\ No newline at end of file
+}
@@ -1,31 +1,25 @@
 package stud.g01.solver.pattern;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * ģʽݿ
- * ͻģʽݿʵ
+ * ȡԤõģʽݿʵʵPatternDatabaseRegistryͳһ
  */
 public class PatternDatabaseManager {
-    private static final Map<String, PatternDatabase> databaseCache = new HashMap<>();
 
     public static PatternDatabase getDatabase(String type, int size) {
-        String key = type + "_" + size;
-        if (!databaseCache.containsKey(key)) {
-            PatternDatabase db = PatternDatabaseBuilder.createByName(type, size);
+        PatternDatabase db = PatternDatabaseBuilder.createByName(type, size);
+        if (!db.isLoaded()) {
             System.out.println("Ԥģʽݿ: " + type);
             db.precompute();
-            databaseCache.put(key, db);
         }
-        return databaseCache.get(key);
+        return db;
     }
 
     public static void clearCache() {
-        databaseCache.clear();
+        PatternDatabaseRegistry.clear();
     }
 
     public static int getCacheSize() {
-        return databaseCache.size();
+        return PatternDatabaseRegistry.size();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,256 @@
+package stud.g01.solver.pattern;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Ψһģʽݿע
+ * ͬһͬʱֻһ߳ڼػ򹹽̵߳ȴͬһ
+ * Ѽصݿⰴʹ˳Уפڴ泬Ԥʱͷδʹõı
+ * ͷǰȱ浽ļ֮ٱʹʱļ¼ء
+ * ڽе̶(PatternDatabase.pin())ıᱻͷš
+ */
+public class PatternDatabaseRegistry {
+    private static final Map<String, CompletableFuture<PatternDatabase>> loading = new ConcurrentHashMap<>();
+
+    // ˳LinkedHashMapʱδʹõĿʼ
+    private static final LinkedHashMap<String, PatternDatabase> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static volatile long memoryBudgetBytes = Runtime.getRuntime().maxMemory() / 2;
+
+    // ͳ
+    private static long hits;
+    private static long loads;
+    private static long evictions;
+
+    private PatternDatabaseRegistry() {
+    }
+
+    /**
+     * ȡӦݿ⣬ʱloaderػ򹹽
+     * ѱͷŵݿӺļ¼
+     */
+    public static PatternDatabase getOrLoad(String key, Supplier<? extends PatternDatabase> loader) {
+        PatternDatabase cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<PatternDatabase> future = new CompletableFuture<>();
+        CompletableFuture<PatternDatabase> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            System.out.println("ȴ̼߳ģʽݿ: " + key);
+            return join(existing);
+        }
+
+        try {
+            // һ߳̿ǵǼ֮ǰɼ
+            PatternDatabase database = lookup(key);
+            if (database == null) {
+                database = loader.get();
+                synchronized (entries) {
+                    entries.put(key, database);
+                    loads++;
+                }
+                trimToBudget(database);
+            }
+            future.complete(database);
+            return database;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    private static PatternDatabase lookup(String key) {
+        PatternDatabase database;
+        synchronized (entries) {
+            database = entries.get(key);
+            if (database != null) {
+                hits++;
+            }
+        }
+        if (database != null && !database.isLoaded()) {
+            database.reloadFromBackingFile();
+        }
+        return database;
+    }
+
+    private static PatternDatabase join(CompletableFuture<PatternDatabase> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * ݿӺļ¼غãʹ˳򲢼Ԥ
+     */
+    static void noteReloaded(PatternDatabase database) {
+        synchronized (entries) {
+            List<String> keys = new ArrayList<>();
+            for (Map.Entry<String, PatternDatabase> entry : entries.entrySet()) {
+                if (entry.getValue() == database) {
+                    keys.add(entry.getKey());
+                }
+            }
+            for (String key : keys) {
+                entries.get(key);
+            }
+        }
+        trimToBudget(database);
+    }
+
+    /**
+     * פڴ泬Ԥʱδʹõıʼͷ
+     */
+    public static void trimToBudget() {
+        trimToBudget(null);
+    }
+
+    /**
+     * ͬϣkeepͷ
+     * ͬһݿܵǼڶ("corner_3"Ĵש)ȥ
+     */
+    private static void trimToBudget(PatternDatabase keep) {
+        List<String> victimKeys = new ArrayList<>();
+        List<PatternDatabase> victims = new ArrayList<>();
+        synchronized (entries) {
+            long resident = residentBytesLocked();
+            Set<PatternDatabase> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Map.Entry<String, PatternDatabase> entry : entries.entrySet()) {
+                if (resident <= memoryBudgetBytes) {
+                    break;
+                }
+                PatternDatabase database = entry.getValue();
+                long bytes = database.residentBytes();
+                if (bytes == 0 || database == keep || database.isPinned() || !seen.add(database)) {
+                    continue;
+                }
+                victimKeys.add(entry.getKey());
+                victims.add(database);
+                resident -= bytes;
+            }
+        }
+
+        for (int i = 0; i < victims.size(); i++) {
+            evict(victimKeys.get(i), victims.get(i));
+        }
+    }
+
+    private static void evict(String key, PatternDatabase database) {
+        synchronized (database) {
+            // ѡܸձĳ̶
+            if (!database.isLoaded() || database.isPinned()) {
+                return;
+            }
+            String file = database.getBackingFile();
+            if (file == null || !new File(file).exists()) {
+                // ͬһͬ͡һשıͬĿ¼
+                try {
+                    file = PatternDatabaseStore.getDefault().obtain(database.getClass().getSimpleName(),
+                            database.patternTiles, database.size, ".ser", database::writeTable).toString();
+                } catch (IOException e) {
+                    System.out.println("޷ģʽݿ⣬ڴ: " + key + ", " + e.getMessage());
+                    return;
+                }
+                database.setBackingFile(file);
+            }
+            long bytes = database.residentBytes();
+            database.release();
+            synchronized (entries) {
+                evictions++;
+            }
+            System.out.printf("ͷģʽݿ %s (~%,d KB)ļ: %s\n", key, bytes / 1024, file);
+        }
+    }
+
+    private static long residentBytesLocked() {
+        long total = 0;
+        Set<PatternDatabase> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (PatternDatabase database : entries.values()) {
+            if (seen.add(database)) {
+                total += database.residentBytes();
+            }
+        }
+        return total;
+    }
+
+    public static long getResidentBytes() {
+        synchronized (entries) {
+            return residentBytesLocked();
+        }
+    }
+
+    /**
+     * óפڴԤ㣬ͷ
+     */
+    public static void setMemoryBudget(long bytes) {
+        memoryBudgetBytes = bytes;
+        System.out.printf("ģʽݿڴԤ: %,d KB\n", bytes / 1024);
+        trimToBudget();
+    }
+
+    public static long getMemoryBudget() {
+        return memoryBudgetBytes;
+    }
+
+    /**
+     * ǰǼǵݿ
+     */
+    public static List<PatternDatabase> snapshot() {
+        synchronized (entries) {
+            return new ArrayList<>(entries.values());
+        }
+    }
+
+    public static int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * ƳеǼݿԿɱѳԤʹ
+     */
+    public static void clear() {
+        int count;
+        synchronized (entries) {
+            count = entries.size();
+            entries.clear();
+        }
+        System.out.println("עƳ " + count + " ݿ");
+    }
+
+    public static void printStatistics() {
+        System.out.println("=== ģʽݿעͳ ===");
+        synchronized (entries) {
+            System.out.println("Ǽݿ: " + entries.size());
+            for (Map.Entry<String, PatternDatabase> entry : entries.entrySet()) {
+                PatternDatabase database = entry.getValue();
+                System.out.printf("  %s: %s, ~%,d KB\n", entry.getKey(),
+                        database.isLoaded() ? "פ" : "ͷ", database.residentBytes() / 1024);
+            }
+            System.out.printf("פڴ: ~%,d KB / Ԥ %,d KB\n",
+                    residentBytesLocked() / 1024, memoryBudgetBytes / 1024);
+            System.out.printf(": %,d, : %,d, ͷ: %,d\n", hits, loads, evictions);
+        }
+    }
+}
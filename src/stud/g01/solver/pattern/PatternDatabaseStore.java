@@ -0,0 +1,148 @@
+package stud.g01.solver.pattern;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ̹ģʽݿ⻺Ŀ¼
+ * ļɸʽ汾͡ƴͼߴģʽשSHA-256ͬıнжӦͬһļ
+ * ǰFileChannel.lockסӦļһõĽ̹
+ * ϣõļѷֱʹá
+ * дʱļдԭΪʽļֻʱļ½ضϵı
+ */
+public class PatternDatabaseStore {
+    // ļʽıʱļȻٱ
+    public static final int FORMAT_VERSION = 1;
+
+    public static final String DIRECTORY_PROPERTY = "pdb.cache.dir";
+    private static final String DEFAULT_DIRECTORY = "pdb_cache";
+
+    private static volatile PatternDatabaseStore defaultStore;
+
+    // FileChannel.lockͬһJVMڶͬһļظöл
+    private static final Map<Path, Object> localLocks = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    /**
+     * ѱдָʱļ
+     */
+    @FunctionalInterface
+    public interface TableWriter {
+        void write(Path target) throws IOException;
+    }
+
+    public PatternDatabaseStore(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    /**
+     * ĬϻĿ¼ͨϵͳpdb.cache.dirָ
+     */
+    public static PatternDatabaseStore getDefault() {
+        PatternDatabaseStore store = defaultStore;
+        if (store == null) {
+            synchronized (PatternDatabaseStore.class) {
+                store = defaultStore;
+                if (store == null) {
+                    store = new PatternDatabaseStore(Paths.get(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)));
+                    defaultStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Ӧļ·ļһ
+     * @param kind      ͣͬõıӦʹòͬ
+     * @param extension ļչ".pdb"".ser"
+     */
+    public Path resolve(String kind, int[] patternTiles, int size, String extension) {
+        String identity = "v" + FORMAT_VERSION + "|" + kind + "|" + size + "|" + Arrays.toString(patternTiles);
+        return directory.resolve(kind + "_" + sha256(identity).substring(0, 24) + extension);
+    }
+
+    /**
+     * ȡѷıʱwriter
+     * ͬʱͬһűʱֻһ̵writer̵ȴֱӷطļ
+     * @return ѷıļ
+     */
+    public Path obtain(String kind, int[] patternTiles, int size, String extension, TableWriter writer)
+            throws IOException {
+        Path target = resolve(kind, patternTiles, size, extension);
+        if (Files.exists(target)) {
+            return target;
+        }
+
+        Files.createDirectories(directory);
+        Path lockFile = target.resolveSibling(target.getFileName() + ".lock");
+        synchronized (localLocks.computeIfAbsent(lockFile, p -> new Object())) {
+            try (FileChannel channel = FileChannel.open(lockFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    if (Files.exists(target)) {
+                        System.out.println("ʹ̷ģʽݿ: " + target.getFileName());
+                        return target;
+                    }
+                    publish(target, writer);
+                    return target;
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * дʱļԭ÷
+     */
+    private void publish(Path target, TableWriter writer) throws IOException {
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            writer.write(temp);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            System.out.println("ģʽݿѷĿ¼: " + target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest(text.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256", e);
+        }
+    }
+}
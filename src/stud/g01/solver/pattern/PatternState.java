@@ -0,0 +1,155 @@
+package stud.g01.solver.pattern;
+
+import java.util.Arrays;
+
+/**
+ * ģʽ״̬ģʽשλüӿոλãģʽݿĹʹ
+ */
+class PatternState {
+    private final int[] patternPositions;
+    private final int blankPos;
+    private final int size;
+    private final long key;
+
+    private static final int[][] DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+
+    public PatternState(int[] patternPositions, int blankPos, int size) {
+        this.patternPositions = patternPositions.clone();
+        this.blankPos = blankPos;
+        this.size = size;
+        this.key = computeKey();
+    }
+
+    private long computeKey() {
+        long computedKey = blankPos;
+        for (int pos : patternPositions) {
+            computedKey = (computedKey << 6) | (pos & 0x3F);
+        }
+        return computedKey;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public PatternState[] generateNeighbors() {
+        PatternState[] neighbors = new PatternState[4];
+        int count = 0;
+
+        int blankRow = blankPos / size;
+        int blankCol = blankPos % size;
+
+        for (int[] dir : DIRECTIONS) {
+            int newRow = blankRow + dir[0];
+            int newCol = blankCol + dir[1];
+
+            if (newRow >= 0 && newRow < size && newCol >= 0 && newCol < size) {
+                int newBlankPos = newRow * size + newCol;
+
+                int movedTileIndex = -1;
+                for (int i = 0; i < patternPositions.length; i++) {
+                    if (patternPositions[i] == newBlankPos) {
+                        movedTileIndex = i;
+                        break;
+                    }
+                }
+
+                if (movedTileIndex != -1) {
+                    int[] newPositions = patternPositions.clone();
+                    newPositions[movedTileIndex] = blankPos;
+                    neighbors[count++] = new PatternState(newPositions, newBlankPos, size);
+                }
+            }
+        }
+
+        if (count < neighbors.length) {
+            PatternState[] result = new PatternState[count];
+            System.arraycopy(neighbors, 0, result, 0, count);
+            return result;
+        }
+
+        return neighbors;
+    }
+
+    /**
+     * ո񾭹ģʽӵƶΪ0ʱĹ淶״̬
+     * ոɵбСĸӱʾͬһڵ״̬ϲΪһ
+     */
+    public PatternState normalized() {
+        long region = blankRegion();
+        int canonical = Long.numberOfTrailingZeros(region);
+        return canonical == blankPos ? this : new PatternState(patternPositions, canonical, size);
+    }
+
+    /**
+     * 淶״̬ھӣոԱߵģʽשһƽø
+     */
+    public PatternState[] generateRegionNeighbors() {
+        long region = blankRegion();
+        PatternState[] neighbors = new PatternState[patternPositions.length * 4];
+        int count = 0;
+
+        for (int i = 0; i < patternPositions.length; i++) {
+            int tilePos = patternPositions[i];
+            int tileRow = tilePos / size;
+            int tileCol = tilePos % size;
+
+            for (int[] dir : DIRECTIONS) {
+                int newRow = tileRow + dir[0];
+                int newCol = tileCol + dir[1];
+
+                if (newRow >= 0 && newRow < size && newCol >= 0 && newCol < size) {
+                    int target = newRow * size + newCol;
+                    if ((region & (1L << target)) != 0) {
+                        int[] newPositions = patternPositions.clone();
+                        newPositions[i] = target;
+                        neighbors[count++] = new PatternState(newPositions, tilePos, size).normalized();
+                    }
+                }
+            }
+        }
+
+        return Arrays.copyOf(neighbors, count);
+    }
+
+    /**
+     * ո񲻾ģʽשܵĸ
+     */
+    private long blankRegion() {
+        long occupied = 0;
+        for (int pos : patternPositions) {
+            occupied |= 1L << pos;
+        }
+
+        long region = 1L << blankPos;
+        int[] stack = new int[size * size];
+        int top = 0;
+        stack[top++] = blankPos;
+        while (top > 0) {
+            int pos = stack[--top];
+            int row = pos / size;
+            int col = pos % size;
+            for (int[] dir : DIRECTIONS) {
+                int newRow = row + dir[0];
+                int newCol = col + dir[1];
+                if (newRow >= 0 && newRow < size && newCol >= 0 && newCol < size) {
+                    int next = newRow * size + newCol;
+                    long bit = 1L << next;
+                    if ((region & bit) == 0 && (occupied & bit) == 0) {
+                        region |= bit;
+                        stack[top++] = next;
+                    }
+                }
+            }
+        }
+        return region;
+    }
+
+    public int getBlankPos() {
+        return blankPos;
+    }
+
+    public int[] getPatternPositions() {
+        return patternPositions.clone();
+    }
+}
\ No newline at end of file
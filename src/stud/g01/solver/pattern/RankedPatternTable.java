@@ -0,0 +1,133 @@
+package stud.g01.solver.pattern;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * (rank)ģʽݿ
+ * ļͷ֮ÿrankռһֽڣͨڴӳȡĴСܶڴơ
+ *
+ * ļʽ
+ *   int   MAGIC
+ *   int   ƴͼߴ size
+ *   int   ģʽש k
+ *   int[] ģʽש
+ *   long   P(size*size, k)
+ *   byte[] UNREACHABLEʾɴ
+ */
+public class RankedPatternTable {
+    public static final int MAGIC = 0x50444231;     // "PDB1"
+    public static final int UNREACHABLE = 0xFF;
+
+    // ӳεĴС2GBı(9שģʽ)ֶӳ
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+    private final int size;
+    private final int[] patternTiles;
+    private final long entries;
+    private final MappedByteBuffer[] segments;
+
+    private RankedPatternTable(int size, int[] patternTiles, long entries, MappedByteBuffer[] segments) {
+        this.size = size;
+        this.patternTiles = patternTiles;
+        this.entries = entries;
+        this.segments = segments;
+    }
+
+    /**
+     * ֻʽӳһļ
+     */
+    public static RankedPatternTable map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("ģʽݿ: " + file);
+            }
+            int size = in.readInt();
+            int[] tiles = new int[in.readInt()];
+            for (int i = 0; i < tiles.length; i++) {
+                tiles[i] = in.readInt();
+            }
+            long entries = in.readLong();
+            long offset = headerBytes(tiles.length);
+            if (channel.size() < offset + entries) {
+                throw new IOException("ļ: " + file);
+            }
+
+            int segmentCount = (int) ((entries + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                long length = Math.min(SEGMENT_SIZE, entries - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + start, length);
+            }
+            return new RankedPatternTable(size, tiles, entries, segments);
+        }
+    }
+
+    /**
+     * ļͷֽ
+     */
+    static long headerBytes(int patternLength) {
+        return 4 + 4 + 4 + 4L * patternLength + 8;
+    }
+
+    /**
+     * @return rankӦľ룬ɴʱUNREACHABLE
+     */
+    public int get(long rank) {
+        return segments[(int) (rank >>> SEGMENT_BITS)].get((int) (rank & (SEGMENT_SIZE - 1))) & 0xFF;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public int getPuzzleSize() {
+        return size;
+    }
+
+    public int[] getPatternTiles() {
+        return patternTiles.clone();
+    }
+
+    public boolean matches(int[] tiles, int puzzleSize) {
+        return puzzleSize == size && Arrays.equals(tiles, patternTiles);
+    }
+
+    /**
+     * cellsѡk P(cells, k)
+     */
+    public static long permutationCount(int cells, int k) {
+        long count = 1;
+        for (int i = 0; i < k; i++) {
+            count *= (cells - i);
+        }
+        return count;
+    }
+
+    /**
+     * ģʽשλõ(ֵ)ȡֵΧ [0, P(cells, k))
+     * @param positions ģʽשڵλãͬ
+     * @param cells     ̸
+     */
+    public static long rank(int[] positions, int cells) {
+        int k = positions.length;
+        long rank = 0;
+        int used = 0;
+        for (int i = 0; i < k; i++) {
+            int pos = positions[i];
+            int smaller = pos - Integer.bitCount(used & ((1 << pos) - 1));
+            rank = rank * (cells - i) + smaller;
+            used |= 1 << pos;
+        }
+        return rank;
+    }
+}
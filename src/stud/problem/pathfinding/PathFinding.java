@@ -5,7 +5,9 @@ import core.problem.Problem;
 import core.problem.State;
 import core.solver.queue.Node;
 
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 
 /**
  * Ѱ·
@@ -52,6 +54,35 @@ public class PathFinding extends Problem {
         return action.stepCost() * type.magnify();
     }
 
+    /**
+     * ƶܷȡڽĸӣĴ۲ͬ
+     * ԷʹдpredecessorNodes
+     */
+    @Override
+    public boolean reversible() {
+        return true;
+    }
+
+    /**
+     * ʱǰnodeڸӷһܵĸӡ
+     * ǰ߽ǰӵĴǽ뵱ǰӵĴۣԷÿһۼӵǵǰӵĺɢֵ
+     * @param node  еĽ
+     * @return  nodeǰ
+     */
+    @Override
+    public List<Node> predecessorNodes(Node node) {
+        List<Node> nodes = new ArrayList<>();
+        State state = node.getState();
+        for (var action : state.actions()) {
+            if (applicable(state, action)) {
+                //ƶͬ۰ǰӵĵ״
+                int pathCost = node.getPathCost() + stepCost(state, action);
+                nodes.add(new Node(state.next(action), node, action, pathCost));
+            }
+        }
+        return nodes;
+    }
+
     @Override
     public boolean applicable(State state, Action action) {
         int[] offsets = Direction.offset(((Move)action).getDirection());